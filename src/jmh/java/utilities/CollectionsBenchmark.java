@@ -0,0 +1,80 @@
+package utilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import types.Pair;
+import types.Tuple;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks for the Collections transformers. Scores should grow linearly with {@code size} - anything steeper is a regression
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollectionsBenchmark {
+
+    @Param({ "10", "1000", "100000", "10000000" })
+    private int size;
+
+    @Param({ "ArrayList", "ArrayDeque" })
+    private String type;
+
+    private Collection<Integer> ts;
+    private Collection<String> strings;
+
+    @Setup
+    public void setup() {
+        final Collection<Integer> integers = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        ts = type.equals("ArrayList") ? new ArrayList<>(integers) : new ArrayDeque<>(integers);
+        strings = integers.stream().map(String::valueOf).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    @Benchmark
+    public Collection<Tuple<Integer, String>> zip() {
+        return Collections.zip(ts, strings);
+    }
+
+    @Benchmark
+    public Collection<Tuple<Integer, Integer>> indexed() {
+        return Collections.indexed(ts);
+    }
+
+    @Benchmark
+    public Collection<Pair<Integer>> toPairs() {
+        return Collections.toPairs(ts);
+    }
+
+    @Benchmark
+    public Collection<Pair<Integer>> toOverlappingPairs() {
+        return Collections.toOverlappingPairs(ts);
+    }
+
+    @Benchmark
+    public Collection<Integer> reverse() {
+        return Collections.reverse(ts);
+    }
+
+    @Benchmark
+    public Collection<Integer> indicesOf() {
+        return Collections.indicesOf(ts, size / 2);
+    }
+}
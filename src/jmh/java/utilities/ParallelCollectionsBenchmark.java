@@ -0,0 +1,87 @@
+package utilities;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import types.Tuple;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmarks for the parallel Collections transformers. Each runs inside a pool of {@code parallelism} workers, so
+ * comparing scores across that parameter gives the speedup curve against the number of cores used
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelCollectionsBenchmark {
+
+    @Param({ "1000000", "10000000" })
+    private int size;
+
+    @Param({ "1", "2", "4", "8", "16", "32" })
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private List<Integer> ts;
+    private Collection<Integer>[] shards;
+
+    @Setup
+    public void setup() {
+        pool = new ForkJoinPool(parallelism);
+        ts = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        shards = toArray(Collections.partition(ts, size / 100));
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Collection<Integer> parallelFlatten() {
+        return pool.submit(() -> Collections.parallelFlatten(shards)).join();
+    }
+
+    @Benchmark
+    public Collection<Tuple<Integer, Integer>> parallelIndexed() {
+        return pool.submit(() -> Collections.parallelIndexed(ts)).join();
+    }
+
+    @Benchmark
+    public Collection<Integer> parallelIndicesOf() {
+        return pool.submit(() -> Collections.parallelIndicesOf(ts, size / 2)).join();
+    }
+
+    @Benchmark
+    public Collection<Integer> parallelApplyPredicate() {
+        return pool.submit(() -> Collections.parallelApplyPredicate(ts, Predicates.even())).join();
+    }
+
+    @Benchmark
+    public Collection<Integer> parallelReverse() {
+        return pool.submit(() -> Collections.parallelReverse(ts)).join();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Collection<T>[] toArray(final Collection<Collection<T>> cs) {
+        return cs.toArray((Collection<T>[]) new Collection<?>[0]);
+    }
+}
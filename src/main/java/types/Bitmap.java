@@ -0,0 +1,388 @@
+package types;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * A compressed set of non-negative ints, in the style of a Roaring bitmap. Values are grouped by their high 16 bits and
+ * each group of low 16 bits is stored as a sorted array while it has at most 4096 values, or as a 65536-bit bitmap
+ * beyond that. {@code and}, {@code or}, {@code xor} and {@code not} mirror the {@link utilities.Predicates} of the same
+ * names, so selections made by several predicates can be combined without rescanning the collection
+ */
+public class Bitmap {
+
+    final private static int ARRAY_MAX = 4096;
+    final private static int WORDS = 1 << 10;
+
+    private int[] keys = new int[0];
+    private Container[] containers = new Container[0];
+    private int size;
+
+    public static Bitmap of(final int... values) {
+        final Bitmap bitmap = new Bitmap();
+        for (final int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * A bitmap of every value from {@code fromValue} (inclusive) to {@code toValue} (exclusive)
+     */
+    public static Bitmap range(final int fromValue, final int toValue) {
+        validate(fromValue);
+        final Bitmap bitmap = new Bitmap();
+        for (int key = fromValue >>> 16; toValue > 0 && key <= (toValue - 1) >>> 16; key++) {
+            final long[] words = new long[WORDS];
+            final int low = Math.max(fromValue - (key << 16), 0);
+            final int high = Math.min(toValue - (key << 16), 1 << 16);
+            for (int bit = low; bit < high; bit++) {
+                words[bit >>> 6] |= 1L << bit;
+            }
+            bitmap.append(key, Container.fromWords(words));
+        }
+        return bitmap;
+    }
+
+    public void add(final int value) {
+        validate(value);
+        final int index = indexOf(value >>> 16);
+        if (index >= 0) {
+            containers[index] = containers[index].add((char) value);
+        } else {
+            insert(-index - 1, value >>> 16, new ArrayContainer().add((char) value));
+        }
+    }
+
+    public boolean contains(final int value) {
+        final int index = value < 0 ? -1 : indexOf(value >>> 16);
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int cardinality() {
+        int cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Pass each value to {@code consumer} in ascending order
+     */
+    public void forEach(final IntConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public int[] toArray() {
+        final int[] values = new int[cardinality()];
+        final int[] next = { 0 };
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(toArray());
+    }
+
+    public Bitmap and(final Bitmap other) {
+        return combine(this, other, false, false, true);
+    }
+
+    public Bitmap or(final Bitmap other) {
+        return combine(this, other, true, true, true);
+    }
+
+    public Bitmap xor(final Bitmap other) {
+        return combine(this, other, true, true, false);
+    }
+
+    public Bitmap andNot(final Bitmap other) {
+        return combine(this, other, true, false, false);
+    }
+
+    /**
+     * The values from 0 to {@code universe} (exclusive) that are not in this bitmap, e.g. the indices of a collection
+     * of size {@code universe} that weren't selected
+     */
+    public Bitmap not(final int universe) {
+        return range(0, universe).andNot(this);
+    }
+
+    private static Bitmap combine(final Bitmap a, final Bitmap b, final boolean keepA, final boolean keepB, final boolean keepBoth) {
+        final Bitmap combined = new Bitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.size || j < b.size) {
+            final int aKey = i < a.size ? a.keys[i] : Integer.MAX_VALUE;
+            final int bKey = j < b.size ? b.keys[j] : Integer.MAX_VALUE;
+            if (aKey == bKey) {
+                combined.append(aKey, Container.combine(a.containers[i++], b.containers[j++], keepA, keepB, keepBoth));
+            } else if (aKey < bKey) {
+                combined.append(aKey, keepA ? a.containers[i].copy() : null);
+                i++;
+            } else {
+                combined.append(bKey, keepB ? b.containers[j].copy() : null);
+                j++;
+            }
+        }
+        return combined;
+    }
+
+    private void append(final int key, final Container container) {
+        if (container != null) {
+            insert(size, key, container);
+        }
+    }
+
+    private void insert(final int index, final int key, final Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(4, size * 2));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private int indexOf(final int key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private static void validate(final int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Bitmap values must be >= 0");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Arrays.equals(toArray(), ((Bitmap) o).toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char low);
+
+        abstract boolean contains(char low);
+
+        abstract int cardinality();
+
+        abstract long[] words();
+
+        abstract void forEach(int high, IntConsumer consumer);
+
+        abstract Container copy();
+
+        static Container combine(final Container a, final Container b, final boolean keepA, final boolean keepB, final boolean keepBoth) {
+            if (a instanceof ArrayContainer && b instanceof ArrayContainer) {
+                return ArrayContainer.merge((ArrayContainer) a, (ArrayContainer) b, keepA, keepB, keepBoth);
+            }
+            final long[] aWords = a.words();
+            final long[] bWords = b.words();
+            final long[] words = new long[WORDS];
+            for (int i = 0; i < WORDS; i++) {
+                words[i] = (keepBoth ? aWords[i] & bWords[i] : 0)
+                        | (keepA ? aWords[i] & ~bWords[i] : 0)
+                        | (keepB ? ~aWords[i] & bWords[i] : 0);
+            }
+            return fromWords(words);
+        }
+
+        /**
+         * The smallest container holding the bits in {@code words}, or null if there are none
+         */
+        static Container fromWords(final long[] words) {
+            int cardinality = 0;
+            for (final long word : words) {
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            if (cardinality > ARRAY_MAX) {
+                return new BitsContainer(words, cardinality);
+            }
+            final char[] values = new char[cardinality];
+            int next = 0;
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[next++] = (char) ((i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int cardinality;
+
+        private ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        private ArrayContainer(final char[] values, final int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(final char low) {
+            final int index = Arrays.binarySearch(values, 0, cardinality, low);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                return new BitsContainer(words(), cardinality).add(low);
+            }
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            final int insertion = -index - 1;
+            System.arraycopy(values, insertion, values, insertion + 1, cardinality - insertion);
+            values[insertion] = low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        boolean contains(final char low) {
+            return Arrays.binarySearch(values, 0, cardinality, low) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long[] words() {
+            final long[] words = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer consumer) {
+            for (int i = 0; i < cardinality; i++) {
+                consumer.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        static Container merge(final ArrayContainer a, final ArrayContainer b, final boolean keepA, final boolean keepB, final boolean keepBoth) {
+            final char[] merged = new char[a.cardinality + b.cardinality];
+            int count = 0;
+            int i = 0;
+            int j = 0;
+            while (i < a.cardinality || j < b.cardinality) {
+                final int aValue = i < a.cardinality ? a.values[i] : Integer.MAX_VALUE;
+                final int bValue = j < b.cardinality ? b.values[j] : Integer.MAX_VALUE;
+                if (aValue == bValue) {
+                    if (keepBoth) {
+                        merged[count++] = (char) aValue;
+                    }
+                    i++;
+                    j++;
+                } else if (aValue < bValue) {
+                    if (keepA) {
+                        merged[count++] = (char) aValue;
+                    }
+                    i++;
+                } else {
+                    if (keepB) {
+                        merged[count++] = (char) bValue;
+                    }
+                    j++;
+                }
+            }
+            if (count == 0) {
+                return null;
+            }
+            return count > ARRAY_MAX ? fromWords(new ArrayContainer(merged, count).words()) : new ArrayContainer(merged, count);
+        }
+    }
+
+    private static final class BitsContainer extends Container {
+
+        final private long[] words;
+        private int cardinality;
+
+        private BitsContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(final char low) {
+            final long bit = 1L << low;
+            if ((words[low >>> 6] & bit) == 0) {
+                words[low >>> 6] |= bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(final char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        long[] words() {
+            return words;
+        }
+
+        @Override
+        void forEach(final int high, final IntConsumer consumer) {
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    consumer.accept(high | (i << 6) + Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitsContainer(words.clone(), cardinality);
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package types;
+
+import java.util.AbstractMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, thread-safe cache with a segmented LRU eviction policy. Keys are spread over lock stripes, and within each
+ * stripe new entries start in a probationary segment and are only promoted to the protected segment (80% of the
+ * stripe) when read again, so a burst of one-off keys can't flush out entries that are used repeatedly. Entries can
+ * optionally expire a fixed time after they were written
+ */
+public class Cache<K, V> {
+
+    final private static int MAX_STRIPES = 16;
+    final private static int MIN_STRIPE_SIZE = 16;
+    final private static double PROTECTED_RATIO = 0.8;
+
+    final private Stripe<K, V>[] stripes;
+    final private long expireAfterNanos;
+    final private LongSupplier clock;
+
+    final private LongAdder hits = new LongAdder();
+    final private LongAdder misses = new LongAdder();
+    final private LongAdder evictions = new LongAdder();
+
+    public Cache(final int maxSize) {
+        this(maxSize, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param expireAfterWrite how long after being written an entry expires, or 0 for never
+     */
+    public Cache(final int maxSize, final long expireAfterWrite, final TimeUnit unit) {
+        this(maxSize, unit.toNanos(expireAfterWrite), System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    Cache(final int maxSize, final long expireAfterNanos, final LongSupplier clock) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Max size must be > 0");
+        }
+        // only stripe caches big enough that each stripe still holds a useful number of entries
+        final int stripeCount = Integer.highestOneBit(Math.max(1, Math.min(maxSize / MIN_STRIPE_SIZE, MAX_STRIPES)));
+        this.stripes = (Stripe<K, V>[]) new Stripe<?, ?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            // spread the remainder so the stripes add up to exactly maxSize
+            stripes[i] = new Stripe<>(maxSize / stripeCount + (i < maxSize % stripeCount ? 1 : 0));
+        }
+        this.expireAfterNanos = expireAfterNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * Memoize {@code supplier} so it is called at most once every {@code expireAfterWrite}
+     */
+    public static <V> Supplier<V> memoize(final Supplier<V> supplier, final long expireAfterWrite, final TimeUnit unit) {
+        final Cache<Boolean, V> cache = new Cache<>(1, expireAfterWrite, unit);
+        return () -> cache.get(true, key -> supplier.get());
+    }
+
+    /**
+     * Wrap {@code function} so its results are served from this cache
+     */
+    public Function<K, V> memoize(final Function<K, V> function) {
+        return key -> get(key, function);
+    }
+
+    /**
+     * Get the value for {@code key}, computing it with {@code loader} if it isn't cached. The loader runs outside any
+     * lock, so two threads missing on the same key at once may both compute it
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        final Stripe<K, V> stripe = stripeFor(key);
+        final long now = clock.getAsLong();
+        synchronized (stripe) {
+            final Entry<V> entry = stripe.get(key);
+            if (entry != null && !expired(entry, now)) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+
+        misses.increment();
+        final V value = loader.apply(key);
+        synchronized (stripe) {
+            evictions.add(stripe.put(key, new Entry<>(value, clock.getAsLong())));
+        }
+        return value;
+    }
+
+    public void invalidate(final K key) {
+        final Stripe<K, V> stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (final Stripe<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    private boolean expired(final Entry<V> entry, final long now) {
+        return expireAfterNanos > 0 && now - entry.written >= expireAfterNanos;
+    }
+
+    private Stripe<K, V> stripeFor(final K key) {
+        final int hash = key == null ? 0 : key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Entry<V> {
+
+        final private V value;
+        final private long written;
+
+        private Entry(final V value, final long written) {
+            this.value = value;
+            this.written = written;
+        }
+    }
+
+    /**
+     * One lock stripe's segmented LRU. Both segments iterate least recently used first
+     */
+    private static final class Stripe<K, V> {
+
+        final private int maxSize;
+        final private int protectedMaxSize;
+        final private LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final private LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(final int maxSize) {
+            this.maxSize = maxSize;
+            // leave room for at least one probationary entry, or a new key would be evicted as soon as it was added
+            this.protectedMaxSize = Math.min(maxSize - 1, Math.max(1, (int) (maxSize * PROTECTED_RATIO)));
+        }
+
+        private Entry<V> get(final K key) {
+            final Entry<V> promoted = probation.remove(key);
+            if (promoted == null) {
+                return protectedSegment.get(key);
+            }
+            protectedSegment.put(key, promoted);
+            if (protectedSegment.size() > protectedMaxSize) {
+                final Map.Entry<K, Entry<V>> demoted = removeEldest(protectedSegment);
+                probation.put(demoted.getKey(), demoted.getValue());
+            }
+            return promoted;
+        }
+
+        /**
+         * Add or replace an entry, returning how many entries were evicted to make room for it
+         */
+        private int put(final K key, final Entry<V> entry) {
+            if (protectedSegment.containsKey(key)) {
+                protectedSegment.put(key, entry);
+                return 0;
+            }
+            probation.put(key, entry);
+
+            int evicted = 0;
+            while (size() > maxSize) {
+                removeEldest(probation.isEmpty() ? protectedSegment : probation);
+                evicted++;
+            }
+            return evicted;
+        }
+
+        private void remove(final K key) {
+            if (probation.remove(key) == null) {
+                protectedSegment.remove(key);
+            }
+        }
+
+        private int size() {
+            return probation.size() + protectedSegment.size();
+        }
+
+        private static <K, V> Map.Entry<K, V> removeEldest(final LinkedHashMap<K, V> segment) {
+            final Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+            final Map.Entry<K, V> eldest = iterator.next();
+            final Map.Entry<K, V> copy = new AbstractMap.SimpleImmutableEntry<>(eldest);
+            iterator.remove();
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package types;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * An off-heap version of {@link IntList}, backed by a direct {@link ByteBuffer}. Its elements take up no heap space and
+ * are never scanned by the garbage collector; the memory is released once the list itself is collected
+ */
+public class DirectIntList {
+
+    final private static int DEFAULT_CAPACITY = 10;
+
+    private IntBuffer elements;
+    private int size;
+
+    public DirectIntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DirectIntList(final int initialCapacity) {
+        this.elements = allocate(initialCapacity);
+    }
+
+    public static DirectIntList of(final int... values) {
+        final DirectIntList list = new DirectIntList(values.length);
+        list.elements.put(values, 0, values.length);
+        list.size = values.length;
+        return list;
+    }
+
+    public static DirectIntList fill(final int value, final int times) {
+        final DirectIntList list = new DirectIntList(Math.max(times, 0));
+        for (int i = 0; i < times; i++) {
+            list.elements.put(i, value);
+        }
+        list.size = Math.max(times, 0);
+        return list;
+    }
+
+    public static DirectIntList fill(final IntSupplier supplier, final int times) {
+        final DirectIntList list = new DirectIntList(Math.max(times, 0));
+        for (int i = 0; i < times; i++) {
+            list.elements.put(i, supplier.getAsInt());
+        }
+        list.size = Math.max(times, 0);
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(final int index) {
+        checkIndex(index);
+        return elements.get(index);
+    }
+
+    public int set(final int index, final int value) {
+        checkIndex(index);
+        final int previous = elements.get(index);
+        elements.put(index, value);
+        return previous;
+    }
+
+    public void add(final int value) {
+        if (size == elements.capacity()) {
+            final IntBuffer grown = allocate(Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+            elements.clear();
+            grown.put(elements);
+            elements = grown;
+        }
+        elements.put(size++, value);
+    }
+
+    public int[] toArray() {
+        final int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = elements.get(i);
+        }
+        return array;
+    }
+
+    public IntStream stream() {
+        return IntStream.range(0, size).map(elements::get);
+    }
+
+    /**
+     * Copy the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) into a new off-heap list
+     */
+    public DirectIntList slice(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        final DirectIntList sliced = new DirectIntList(toIndex - fromIndex);
+        final IntBuffer range = elements.duplicate();
+        range.limit(toIndex);
+        range.position(fromIndex);
+        sliced.elements.put(range);
+        sliced.size = toIndex - fromIndex;
+        return sliced;
+    }
+
+    public List<DirectIntList> partition(final int partitionSize) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be > 1");
+        }
+        final List<DirectIntList> partitioned = new ArrayList<>(size / partitionSize + 1);
+        for (int from = 0; from < size; from += partitionSize) {
+            partitioned.add(slice(from, Math.min(from + partitionSize, size)));
+        }
+        return partitioned;
+    }
+
+    public DirectIntList reverse() {
+        final DirectIntList reversed = new DirectIntList(size);
+        for (int i = 0; i < size; i++) {
+            reversed.elements.put(i, elements.get(size - 1 - i));
+        }
+        reversed.size = size;
+        return reversed;
+    }
+
+    public IntList indicesOf(final int value) {
+        final IntList indices = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (elements.get(i) == value) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static IntBuffer allocate(final int capacity) {
+        return ByteBuffer.allocateDirect(capacity * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+
+    @Override
+    public String toString() {
+        return IntList.of(toArray()).toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DirectIntList that = (DirectIntList) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (elements.get(i) != that.elements.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Integer.hashCode(elements.get(i));
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,163 @@
+package types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.DoubleSupplier;
+import java.util.stream.DoubleStream;
+
+/**
+ * A growable list of unboxed {@code double}s backed by a {@code double[]}. None of its operations box their elements
+ */
+public class DoubleList {
+
+    final private static int DEFAULT_CAPACITY = 10;
+
+    private double[] elements;
+    private int size;
+
+    public DoubleList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public DoubleList(final int initialCapacity) {
+        this(new double[initialCapacity], 0);
+    }
+
+    private DoubleList(final double[] elements, final int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static DoubleList of(final double... values) {
+        return new DoubleList(values.clone(), values.length);
+    }
+
+    public static DoubleList fill(final double value, final int times) {
+        final double[] elements = new double[Math.max(times, 0)];
+        Arrays.fill(elements, value);
+        return new DoubleList(elements, elements.length);
+    }
+
+    public static DoubleList fill(final DoubleSupplier supplier, final int times) {
+        final double[] elements = new double[Math.max(times, 0)];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = supplier.getAsDouble();
+        }
+        return new DoubleList(elements, elements.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double get(final int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public double set(final int index, final double value) {
+        checkIndex(index);
+        final double previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public void add(final double value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        elements[size++] = value;
+    }
+
+    public double[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public DoubleStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Copy the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) into a new list
+     */
+    public DoubleList slice(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        return new DoubleList(Arrays.copyOfRange(elements, fromIndex, toIndex), toIndex - fromIndex);
+    }
+
+    public List<DoubleList> partition(final int partitionSize) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be > 1");
+        }
+        final List<DoubleList> partitioned = new ArrayList<>(size / partitionSize + 1);
+        for (int from = 0; from < size; from += partitionSize) {
+            partitioned.add(slice(from, Math.min(from + partitionSize, size)));
+        }
+        return partitioned;
+    }
+
+    public DoubleList reverse() {
+        final double[] reversed = new double[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = elements[size - 1 - i];
+        }
+        return new DoubleList(reversed, size);
+    }
+
+    public IntList indicesOf(final double value) {
+        final IntList indices = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(elements[i]) == Double.doubleToLongBits(value)) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DoubleList that = (DoubleList) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (Double.doubleToLongBits(elements[i]) != Double.doubleToLongBits(that.elements[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Double.hashCode(elements[i]);
+        }
+        return hash;
+    }
+}
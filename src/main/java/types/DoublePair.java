@@ -0,0 +1,54 @@
+package types;
+
+public class DoublePair {
+
+    final private double one;
+    final private double two;
+
+    public DoublePair(final double one, final double two) {
+        this.one = one;
+        this.two = two;
+    }
+
+    public double getOne() {
+        return one;
+    }
+
+    public double getTwo() {
+        return two;
+    }
+
+    public double _1() {
+        return one;
+    }
+
+    public double _2() {
+        return two;
+    }
+
+    @Override
+    public String toString() {
+        return "DoublePair{" +
+                "one=" + one +
+                ", two=" + two +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        DoublePair that = (DoublePair) o;
+        return Double.compare(one, that.one) == 0 &&
+                Double.compare(two, that.two) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(one) + Double.hashCode(two);
+    }
+}
@@ -0,0 +1,338 @@
+package types;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * A collection that keeps indexes on keys extracted from its elements, for answering repeated lookups without scanning.
+ * Hash indexes find by key in O(1) and sorted indexes in O(log n) with range queries, plus O(log n) per position
+ * returned. Indexes store a stable id per element rather than its position, so adding updates each index in O(1) and
+ * removing in O(log n) plus the size of the removed key's bucket, instead of shifting every later position. Ids are
+ * renumbered once as many elements have been removed as remain
+ */
+public class IndexedCollection<T> extends AbstractCollection<T> {
+
+    final private List<T> elements = new ArrayList<>();
+    private IntList ids = new IntList();
+    final private Ranks ranks = new Ranks();
+    final private List<Index<?, T>> indexes = new ArrayList<>();
+    private Index<T, T> self;
+
+    public IndexedCollection() {
+    }
+
+    public IndexedCollection(final Collection<? extends T> ts) {
+        elements.addAll(ts);
+        renumber();
+    }
+
+    /**
+     * Add a hash index on {@code key}, built from the current elements and kept up to date from then on
+     */
+    public <K> Index<K, T> hashIndex(final Function<? super T, K> key) {
+        return register(new Index<>(this, key, new HashMap<>()));
+    }
+
+    /**
+     * Add a sorted index on {@code key}, built from the current elements and kept up to date from then on. Its keys are
+     * held in a {@link TreeMap}, so they must not be null
+     *
+     * @throws NullPointerException if {@code key} returns null for a current element; adding an element whose key is
+     * null later throws too, and leaves the collection unchanged
+     */
+    public <K extends Comparable<? super K>> SortedIndex<K, T> sortedIndex(final Function<? super T, K> key) {
+        return register(new SortedIndex<>(this, key));
+    }
+
+    /**
+     * Add an index on the elements themselves, or return it if there already is one. {@link #indicesOf} and
+     * {@link #remove} use it rather than scanning once it exists
+     */
+    public Index<T, T> identityIndex() {
+        if (self == null) {
+            self = hashIndex(Function.identity());
+        }
+        return self;
+    }
+
+    public T get(final int index) {
+        return elements.get(index);
+    }
+
+    /**
+     * The positions of elements equal to {@code t}, as {@code Collections.indicesOf} would find them. This scans the
+     * elements unless {@link #identityIndex()} has been called
+     */
+    public Collection<Integer> indicesOf(final T t) {
+        if (self != null) {
+            return self.indicesOf(t);
+        }
+        final List<Integer> indices = new ArrayList<>();
+        for (int i = 0; i < elements.size(); i++) {
+            if (Objects.equals(elements.get(i), t)) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    @Override
+    public boolean add(final T t) {
+        final int id = ranks.size();
+        int updated = 0;
+        try {
+            for (final Index<?, T> index : indexes) {
+                index.added(t, id);
+                updated++;
+            }
+        } catch (final RuntimeException e) {
+            for (int i = 0; i < updated; i++) {
+                indexes.get(i).removed(t, id);
+            }
+            throw e;
+        }
+        elements.add(t);
+        ids.add(id);
+        ranks.add();
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean remove(final Object o) {
+        final int position = self != null ? self.findIndex((T) o).orElse(-1) : elements.indexOf(o);
+        if (position < 0) {
+            return false;
+        }
+        removeAt(position);
+        return true;
+    }
+
+    public T removeAt(final int position) {
+        final T removed = elements.remove(position);
+        final int id = ids.removeAt(position);
+        ranks.remove(id);
+        for (final Index<?, T> index : indexes) {
+            index.removed(removed, id);
+        }
+        if (ranks.size() - elements.size() > elements.size()) {
+            renumber();
+        }
+        return removed;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int position = 0;
+            private int last = -1;
+
+            @Override
+            public boolean hasNext() {
+                return position < elements.size();
+            }
+
+            @Override
+            public T next() {
+                last = position;
+                return elements.get(position++);
+            }
+
+            @Override
+            public void remove() {
+                if (last < 0) {
+                    throw new IllegalStateException();
+                }
+                removeAt(last);
+                position = last;
+                last = -1;
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    private <I extends Index<?, T>> I register(final I index) {
+        index.reindex();
+        indexes.add(index);
+        return index;
+    }
+
+    /**
+     * Give the elements ids 0 to n - 1 again and rebuild every index from them
+     */
+    private void renumber() {
+        ids = new IntList(elements.size());
+        for (int i = 0; i < elements.size(); i++) {
+            ids.add(i);
+        }
+        ranks.reset(elements.size());
+        for (final Index<?, T> index : indexes) {
+            index.reindex();
+        }
+    }
+
+    /**
+     * A hash index of element ids by key, each turned into a position when it is read
+     */
+    public static class Index<K, T> {
+
+        final private IndexedCollection<T> owner;
+        final private Function<? super T, K> key;
+        final Map<K, IntList> idsByKey;
+
+        private Index(final IndexedCollection<T> owner, final Function<? super T, K> key, final Map<K, IntList> idsByKey) {
+            this.owner = owner;
+            this.key = key;
+            this.idsByKey = idsByKey;
+        }
+
+        public Optional<T> find(final K k) {
+            final OptionalInt index = findIndex(k);
+            return index.isPresent() ? Optional.of(owner.get(index.getAsInt())) : Optional.empty();
+        }
+
+        public OptionalInt findIndex(final K k) {
+            final IntList found = idsByKey.get(k);
+            return found == null ? OptionalInt.empty() : OptionalInt.of(owner.ranks.rank(found.get(0)));
+        }
+
+        public List<T> findAll(final K k) {
+            return elementsAt(idsByKey.get(k));
+        }
+
+        public Collection<Integer> indicesOf(final K k) {
+            final IntList found = idsByKey.get(k);
+            final List<Integer> indices = new ArrayList<>(found == null ? 0 : found.size());
+            for (int i = 0; found != null && i < found.size(); i++) {
+                indices.add(owner.ranks.rank(found.get(i)));
+            }
+            return indices;
+        }
+
+        List<T> elementsAt(final IntList found) {
+            final List<T> ts = new ArrayList<>(found == null ? 0 : found.size());
+            for (int i = 0; found != null && i < found.size(); i++) {
+                ts.add(owner.get(owner.ranks.rank(found.get(i))));
+            }
+            return ts;
+        }
+
+        void added(final T t, final int id) {
+            idsByKey.computeIfAbsent(key.apply(t), k -> new IntList(1)).add(id);
+        }
+
+        void removed(final T t, final int id) {
+            final K k = key.apply(t);
+            final IntList found = idsByKey.get(k);
+            found.removeAt(binarySearch(found, id));
+            if (found.isEmpty()) {
+                idsByKey.remove(k);
+            }
+        }
+
+        void reindex() {
+            idsByKey.clear();
+            for (int i = 0; i < owner.size(); i++) {
+                added(owner.get(i), owner.ids.get(i));
+            }
+        }
+
+        /**
+         * The index of the first id in {@code sorted} that is >= {@code id}
+         */
+        private static int binarySearch(final IntList sorted, final int id) {
+            int low = 0;
+            int high = sorted.size();
+            while (low < high) {
+                final int mid = (low + high) >>> 1;
+                if (sorted.get(mid) < id) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * A sorted index of element ids by key, which can also answer range queries
+     */
+    public static class SortedIndex<K extends Comparable<? super K>, T> extends Index<K, T> {
+
+        private SortedIndex(final IndexedCollection<T> owner, final Function<? super T, K> key) {
+            super(owner, key, new TreeMap<>());
+        }
+
+        /**
+         * The elements with keys from {@code fromKey} (inclusive) to {@code toKey} (exclusive), in key order
+         */
+        public List<T> findBetween(final K fromKey, final K toKey) {
+            final List<T> found = new ArrayList<>();
+            for (final IntList range : ((NavigableMap<K, IntList>) idsByKey).subMap(fromKey, true, toKey, false).values()) {
+                found.addAll(elementsAt(range));
+            }
+            return found;
+        }
+    }
+
+    /**
+     * A Fenwick tree over ids that counts the ids still in use, so an id's position is the number in use before it
+     */
+    private static final class Ranks {
+
+        // 1-based: tree[i] counts the ids in use from i - (i & -i) to i - 1
+        private int[] tree = new int[1];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        void add() {
+            if (size + 1 == tree.length) {
+                tree = Arrays.copyOf(tree, tree.length * 2);
+            }
+            final int i = ++size;
+            tree[i] = 1 + rank(i - 1) - rank(i - (i & -i));
+        }
+
+        void remove(final int id) {
+            for (int i = id + 1; i <= size; i += i & -i) {
+                tree[i]--;
+            }
+        }
+
+        int rank(final int id) {
+            int rank = 0;
+            for (int i = id; i > 0; i -= i & -i) {
+                rank += tree[i];
+            }
+            return rank;
+        }
+
+        void reset(final int n) {
+            tree = new int[n + 1];
+            for (int i = 1; i <= n; i++) {
+                tree[i] = i & -i;
+            }
+            size = n;
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of unboxed {@code int}s backed by a {@code int[]}. None of its operations box their elements
+ */
+public class IntList {
+
+    final private static int DEFAULT_CAPACITY = 10;
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(final int initialCapacity) {
+        this(new int[initialCapacity], 0);
+    }
+
+    private IntList(final int[] elements, final int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static IntList of(final int... values) {
+        return new IntList(values.clone(), values.length);
+    }
+
+    public static IntList fill(final int value, final int times) {
+        final int[] elements = new int[Math.max(times, 0)];
+        Arrays.fill(elements, value);
+        return new IntList(elements, elements.length);
+    }
+
+    public static IntList fill(final IntSupplier supplier, final int times) {
+        final int[] elements = new int[Math.max(times, 0)];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = supplier.getAsInt();
+        }
+        return new IntList(elements, elements.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(final int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public int set(final int index, final int value) {
+        checkIndex(index);
+        final int previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public void add(final int value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        elements[size++] = value;
+    }
+
+    public int removeAt(final int index) {
+        checkIndex(index);
+        final int removed = elements[index];
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return removed;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public IntStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Copy the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) into a new list
+     */
+    public IntList slice(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        return new IntList(Arrays.copyOfRange(elements, fromIndex, toIndex), toIndex - fromIndex);
+    }
+
+    public List<IntList> partition(final int partitionSize) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be > 1");
+        }
+        final List<IntList> partitioned = new ArrayList<>(size / partitionSize + 1);
+        for (int from = 0; from < size; from += partitionSize) {
+            partitioned.add(slice(from, Math.min(from + partitionSize, size)));
+        }
+        return partitioned;
+    }
+
+    public IntList reverse() {
+        final int[] reversed = new int[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = elements[size - 1 - i];
+        }
+        return new IntList(reversed, size);
+    }
+
+    public IntList indicesOf(final int value) {
+        final IntList indices = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntList that = (IntList) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (elements[i] != that.elements[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Integer.hashCode(elements[i]);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,153 @@
+package types;
+
+import java.util.Arrays;
+
+/**
+ * A map from unboxed int keys to values, using open addressing (linear probing) over flat arrays so neither keys nor
+ * entries are allocated per mapping
+ */
+public class IntObjMap<V> {
+
+    final private static float LOAD_FACTOR = 0.5f;
+
+    private int[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    public IntObjMap() {
+        this(16);
+    }
+
+    public IntObjMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final int key) {
+        return slot(key) >= 0;
+    }
+
+    public V get(final int key) {
+        return getOrDefault(key, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(final int key, final V defaultValue) {
+        final int slot = slot(key);
+        return slot >= 0 ? (V) values[slot] : defaultValue;
+    }
+
+    /**
+     * Associate {@code value} with {@code key}, returning the previous value or null if there wasn't one
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final int key, final V value) {
+        final int slot = slot(key);
+        if (slot >= 0) {
+            final V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        insert(key, value);
+        size++;
+        return null;
+    }
+
+    /**
+     * Remove the mapping for {@code key}, returning its value or null if there wasn't one
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final int key) {
+        int slot = slot(key);
+        if (slot < 0) {
+            return null;
+        }
+        final V removed = (V) values[slot];
+        size--;
+
+        // shift later entries of the probe run back so no lookup passes over the gap
+        final int mask = keys.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!used[next]) {
+                break;
+            }
+            final int home = indexFor(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        used[slot] = false;
+        values[slot] = null;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    private int slot(final int key) {
+        final int mask = keys.length - 1;
+        for (int i = indexFor(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(final int key, final Object value) {
+        final int mask = keys.length - 1;
+        int i = indexFor(key);
+        while (used[i]) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+    }
+
+    private void resize(final int capacity) {
+        final int[] oldKeys = keys;
+        final Object[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    private int indexFor(final int key) {
+        return (key * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(keys.length));
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        final int minimum = (int) Math.min((long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR), 1 << 30);
+        return Math.max(2, Integer.highestOneBit(minimum - 1) << 1);
+    }
+}
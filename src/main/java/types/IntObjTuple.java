@@ -0,0 +1,56 @@
+package types;
+
+import java.util.Objects;
+
+public class IntObjTuple<T> {
+
+    final private int one;
+    final private T two;
+
+    public IntObjTuple(final int one, final T two) {
+        this.one = one;
+        this.two = two;
+    }
+
+    public int getOne() {
+        return one;
+    }
+
+    public T getTwo() {
+        return two;
+    }
+
+    public int _1() {
+        return one;
+    }
+
+    public T _2() {
+        return two;
+    }
+
+    @Override
+    public String toString() {
+        return "IntObjTuple{" +
+                "one=" + one +
+                ", two=" + two +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntObjTuple<?> that = (IntObjTuple<?>) o;
+        return one == that.one &&
+                Objects.equals(two, that.two);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(one) + Objects.hashCode(two);
+    }
+}
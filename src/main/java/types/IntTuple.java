@@ -0,0 +1,54 @@
+package types;
+
+public class IntTuple {
+
+    final private int one;
+    final private int two;
+
+    public IntTuple(final int one, final int two) {
+        this.one = one;
+        this.two = two;
+    }
+
+    public int getOne() {
+        return one;
+    }
+
+    public int getTwo() {
+        return two;
+    }
+
+    public int _1() {
+        return one;
+    }
+
+    public int _2() {
+        return two;
+    }
+
+    @Override
+    public String toString() {
+        return "IntTuple{" +
+                "one=" + one +
+                ", two=" + two +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        IntTuple that = (IntTuple) o;
+        return one == that.one &&
+                two == that.two;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(one) + Integer.hashCode(two);
+    }
+}
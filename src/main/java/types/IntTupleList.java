@@ -0,0 +1,78 @@
+package types;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Like {@link TupleList}, but for {@link IntTuple}s, whose columns are {@link IntList}s so the values are never boxed.
+ * Reading an element through {@link #get} or the iterator creates a new tuple; {@link #getOne}/{@link #getTwo} and the
+ * columns read without allocating. Elements can be appended and replaced but not removed
+ */
+public class IntTupleList extends AbstractList<IntTuple> implements RandomAccess {
+
+    final private IntList ones;
+    final private IntList twos;
+
+    public IntTupleList() {
+        this(new IntList(), new IntList());
+    }
+
+    public IntTupleList(final int initialCapacity) {
+        this(new IntList(initialCapacity), new IntList(initialCapacity));
+    }
+
+    /**
+     * Create a tuple list over two existing columns. The columns are not copied, so they must not be resized other than
+     * through this list
+     */
+    public IntTupleList(final IntList ones, final IntList twos) {
+        if (ones.size() != twos.size()) {
+            throw new IllegalArgumentException("Columns must be the same size");
+        }
+        this.ones = ones;
+        this.twos = twos;
+    }
+
+    public IntList getOnes() {
+        return ones;
+    }
+
+    public IntList getTwos() {
+        return twos;
+    }
+
+    public int getOne(final int index) {
+        return ones.get(index);
+    }
+
+    public int getTwo(final int index) {
+        return twos.get(index);
+    }
+
+    public boolean add(final int one, final int two) {
+        ones.add(one);
+        twos.add(two);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean add(final IntTuple tuple) {
+        return add(tuple._1(), tuple._2());
+    }
+
+    @Override
+    public IntTuple get(final int index) {
+        return new IntTuple(ones.get(index), twos.get(index));
+    }
+
+    @Override
+    public IntTuple set(final int index, final IntTuple tuple) {
+        return new IntTuple(ones.set(index, tuple._1()), twos.set(index, tuple._2()));
+    }
+
+    @Override
+    public int size() {
+        return ones.size();
+    }
+}
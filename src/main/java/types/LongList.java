@@ -0,0 +1,163 @@
+package types;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+/**
+ * A growable list of unboxed {@code long}s backed by a {@code long[]}. None of its operations box their elements
+ */
+public class LongList {
+
+    final private static int DEFAULT_CAPACITY = 10;
+
+    private long[] elements;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(final int initialCapacity) {
+        this(new long[initialCapacity], 0);
+    }
+
+    private LongList(final long[] elements, final int size) {
+        this.elements = elements;
+        this.size = size;
+    }
+
+    public static LongList of(final long... values) {
+        return new LongList(values.clone(), values.length);
+    }
+
+    public static LongList fill(final long value, final int times) {
+        final long[] elements = new long[Math.max(times, 0)];
+        Arrays.fill(elements, value);
+        return new LongList(elements, elements.length);
+    }
+
+    public static LongList fill(final LongSupplier supplier, final int times) {
+        final long[] elements = new long[Math.max(times, 0)];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = supplier.getAsLong();
+        }
+        return new LongList(elements, elements.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(final int index) {
+        checkIndex(index);
+        return elements[index];
+    }
+
+    public long set(final int index, final long value) {
+        checkIndex(index);
+        final long previous = elements[index];
+        elements[index] = value;
+        return previous;
+    }
+
+    public void add(final long value) {
+        if (size == elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(DEFAULT_CAPACITY, size + (size >> 1)));
+        }
+        elements[size++] = value;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    public LongStream stream() {
+        return Arrays.stream(elements, 0, size);
+    }
+
+    /**
+     * Copy the elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive) into a new list
+     */
+    public LongList slice(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        return new LongList(Arrays.copyOfRange(elements, fromIndex, toIndex), toIndex - fromIndex);
+    }
+
+    public List<LongList> partition(final int partitionSize) {
+        if (partitionSize < 1) {
+            throw new IllegalArgumentException("Partition size must be > 1");
+        }
+        final List<LongList> partitioned = new ArrayList<>(size / partitionSize + 1);
+        for (int from = 0; from < size; from += partitionSize) {
+            partitioned.add(slice(from, Math.min(from + partitionSize, size)));
+        }
+        return partitioned;
+    }
+
+    public LongList reverse() {
+        final long[] reversed = new long[size];
+        for (int i = 0; i < size; i++) {
+            reversed[i] = elements[size - 1 - i];
+        }
+        return new LongList(reversed, size);
+    }
+
+    public IntList indicesOf(final long value) {
+        final IntList indices = new IntList();
+        for (int i = 0; i < size; i++) {
+            if (elements[i] == value) {
+                indices.add(i);
+            }
+        }
+        return indices;
+    }
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LongList that = (LongList) o;
+        if (size != that.size) {
+            return false;
+        }
+        for (int i = 0; i < size; i++) {
+            if (elements[i] != that.elements[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            hash = 31 * hash + Long.hashCode(elements[i]);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,141 @@
+package types;
+
+import java.util.Arrays;
+
+/**
+ * A map from unboxed long keys to unboxed long values, using open addressing (linear probing) over flat arrays so neither keys nor
+ * entries are allocated per mapping
+ */
+public class LongLongMap {
+
+    final private static float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongLongMap() {
+        this(16);
+    }
+
+    public LongLongMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final long key) {
+        return slot(key) >= 0;
+    }
+
+    public long getOrDefault(final long key, final long defaultValue) {
+        final int slot = slot(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Associate {@code value} with {@code key}, replacing any existing value
+     */
+    public void put(final long key, final long value) {
+        final int slot = slot(key);
+        if (slot >= 0) {
+            values[slot] = value;
+            return;
+        }
+
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize(keys.length * 2);
+        }
+        insert(key, value);
+        size++;
+    }
+
+    /**
+     * Remove the mapping for {@code key}, returning whether there was one
+     */
+    public boolean remove(final long key) {
+        int slot = slot(key);
+        if (slot < 0) {
+            return false;
+        }
+        size--;
+
+        // shift later entries of the probe run back so no lookup passes over the gap
+        final int mask = keys.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (!used[next]) {
+                break;
+            }
+            final int home = indexFor(keys[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                keys[slot] = keys[next];
+                values[slot] = values[next];
+                slot = next;
+            }
+        }
+        used[slot] = false;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private int slot(final long key) {
+        final int mask = keys.length - 1;
+        for (int i = indexFor(key); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(final long key, final long value) {
+        final int mask = keys.length - 1;
+        int i = indexFor(key);
+        while (used[i]) {
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+    }
+
+    private void resize(final int capacity) {
+        final long[] oldKeys = keys;
+        final long[] oldValues = values;
+        final boolean[] oldUsed = used;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                insert(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    private int indexFor(final long key) {
+        return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(keys.length)));
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        final int minimum = (int) Math.min((long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR), 1 << 30);
+        return Math.max(2, Integer.highestOneBit(minimum - 1) << 1);
+    }
+}
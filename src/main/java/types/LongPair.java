@@ -0,0 +1,54 @@
+package types;
+
+public class LongPair {
+
+    final private long one;
+    final private long two;
+
+    public LongPair(final long one, final long two) {
+        this.one = one;
+        this.two = two;
+    }
+
+    public long getOne() {
+        return one;
+    }
+
+    public long getTwo() {
+        return two;
+    }
+
+    public long _1() {
+        return one;
+    }
+
+    public long _2() {
+        return two;
+    }
+
+    @Override
+    public String toString() {
+        return "LongPair{" +
+                "one=" + one +
+                ", two=" + two +
+                '}';
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        LongPair that = (LongPair) o;
+        return one == that.one &&
+                two == that.two;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(one) + Long.hashCode(two);
+    }
+}
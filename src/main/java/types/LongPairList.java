@@ -0,0 +1,78 @@
+package types;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Like {@link TupleList}, but for {@link LongPair}s, whose columns are {@link LongList}s so the values are never boxed.
+ * Reading an element through {@link #get} or the iterator creates a new pair; {@link #getOne}/{@link #getTwo} and the
+ * columns read without allocating. Elements can be appended and replaced but not removed
+ */
+public class LongPairList extends AbstractList<LongPair> implements RandomAccess {
+
+    final private LongList ones;
+    final private LongList twos;
+
+    public LongPairList() {
+        this(new LongList(), new LongList());
+    }
+
+    public LongPairList(final int initialCapacity) {
+        this(new LongList(initialCapacity), new LongList(initialCapacity));
+    }
+
+    /**
+     * Create a pair list over two existing columns. The columns are not copied, so they must not be resized other than
+     * through this list
+     */
+    public LongPairList(final LongList ones, final LongList twos) {
+        if (ones.size() != twos.size()) {
+            throw new IllegalArgumentException("Columns must be the same size");
+        }
+        this.ones = ones;
+        this.twos = twos;
+    }
+
+    public LongList getOnes() {
+        return ones;
+    }
+
+    public LongList getTwos() {
+        return twos;
+    }
+
+    public long getOne(final int index) {
+        return ones.get(index);
+    }
+
+    public long getTwo(final int index) {
+        return twos.get(index);
+    }
+
+    public boolean add(final long one, final long two) {
+        ones.add(one);
+        twos.add(two);
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean add(final LongPair pair) {
+        return add(pair._1(), pair._2());
+    }
+
+    @Override
+    public LongPair get(final int index) {
+        return new LongPair(ones.get(index), twos.get(index));
+    }
+
+    @Override
+    public LongPair set(final int index, final LongPair pair) {
+        return new LongPair(ones.set(index, pair._1()), twos.set(index, pair._2()));
+    }
+
+    @Override
+    public int size() {
+        return ones.size();
+    }
+}
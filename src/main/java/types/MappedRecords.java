@@ -0,0 +1,200 @@
+package types;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only list of the records in a file, read straight from memory-mapped regions of it. Records are either all
+ * the same size, or each prefixed by its length as a 4-byte big-endian int. Each record is returned as a read-only
+ * {@link ByteBuffer} over the mapped bytes, so nothing is copied onto the heap, and {@link #subList} and
+ * {@link #reversed()} are views sharing the same mapping, which makes {@code get}, {@code slice}, {@code partition}
+ * and {@code reverse} in {@code Collections} zero-copy too.
+ * <p>
+ * Files over 2GB are mapped as several regions, each holding whole records, so a single record must be under 2GB.
+ * Length-prefixed files are scanned once when opened to find where each record starts (8 bytes per record); fixed-size
+ * files are not scanned at all. The mapping is released when the list and every buffer taken from it are garbage
+ */
+public final class MappedRecords extends AbstractList<ByteBuffer> implements RandomAccess {
+
+    static final long MAX_REGION_BYTES = Integer.MAX_VALUE;
+
+    final private Layout layout;
+    final private int from;
+    final private int size;
+    final private boolean reversed;
+
+    private MappedRecords(final Layout layout, final int from, final int size, final boolean reversed) {
+        this.layout = layout;
+        this.from = from;
+        this.size = size;
+        this.reversed = reversed;
+    }
+
+    /**
+     * Map a file of records of {@code recordSize} bytes each, ignoring any incomplete record at the end
+     */
+    public static MappedRecords fixedSize(final Path file, final int recordSize) throws IOException {
+        return fixedSize(file, recordSize, MAX_REGION_BYTES);
+    }
+
+    /**
+     * Map a file of records that are each prefixed by their length in bytes, as a 4-byte big-endian int
+     *
+     * @throws IOException if the last record is cut short or a record is too big to map
+     */
+    public static MappedRecords lengthPrefixed(final Path file) throws IOException {
+        return lengthPrefixed(file, MAX_REGION_BYTES);
+    }
+
+    static MappedRecords fixedSize(final Path file, final int recordSize, final long maxRegionBytes) throws IOException {
+        if (recordSize < 1 || recordSize > maxRegionBytes) {
+            throw new IllegalArgumentException("Record size must be > 0 and fit in a region");
+        }
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long count = channel.size() / recordSize;
+            if (count > Integer.MAX_VALUE) {
+                throw new IOException("Too many records: " + count);
+            }
+            final int perRegion = (int) Math.min(maxRegionBytes / recordSize, Integer.MAX_VALUE);
+            final int regionCount = (int) ((count + perRegion - 1) / perRegion);
+            final ByteBuffer[] regions = new ByteBuffer[regionCount];
+            for (int r = 0; r < regionCount; r++) {
+                final long records = Math.min(perRegion, count - (long) r * perRegion);
+                regions[r] = map(channel, (long) r * perRegion * recordSize, records * recordSize);
+            }
+            return new MappedRecords(new FixedLayout(regions, recordSize, perRegion), 0, (int) count, false);
+        }
+    }
+
+    static MappedRecords lengthPrefixed(final Path file, final long maxRegionBytes) throws IOException {
+        try (final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final long fileSize = channel.size();
+            final List<ByteBuffer> regions = new ArrayList<>();
+            final LongList regionStarts = new LongList();
+            final LongList starts = new LongList();
+
+            long regionStart = 0;
+            while (regionStart < fileSize) {
+                final ByteBuffer region = map(channel, regionStart, Math.min(maxRegionBytes, fileSize - regionStart));
+                int position = 0;
+                while (position + Integer.BYTES <= region.limit()) {
+                    final int length = region.getInt(position);
+                    if (length < 0) {
+                        throw new IOException("Negative record length at byte " + (regionStart + position));
+                    }
+                    if ((long) position + Integer.BYTES + length > region.limit()) {
+                        break;
+                    }
+                    starts.add(regionStart + position);
+                    position += Integer.BYTES + length;
+                }
+                if (position == 0) {
+                    final boolean truncated = region.limit() < Integer.BYTES || regionStart + Integer.BYTES + region.getInt(0) > fileSize;
+                    throw new IOException((truncated ? "Truncated record" : "Record too big to map") + " at byte " + regionStart);
+                }
+                regions.add(region);
+                regionStarts.add(regionStart);
+                regionStart += position;
+            }
+            return new MappedRecords(new PrefixedLayout(regions.toArray(new ByteBuffer[0]), regionStarts.toArray(), starts.toArray()),
+                    0, starts.size(), false);
+        }
+    }
+
+    @Override
+    public ByteBuffer get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return layout.record(reversed ? from + size - 1 - index : from + index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The records from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive), sharing this list's mapping
+     */
+    @Override
+    public MappedRecords subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        final int start = reversed ? from + size - toIndex : from + fromIndex;
+        return new MappedRecords(layout, start, toIndex - fromIndex, reversed);
+    }
+
+    /**
+     * The records in reverse order, sharing this list's mapping
+     */
+    public MappedRecords reversed() {
+        return new MappedRecords(layout, from, size, !reversed);
+    }
+
+    private static ByteBuffer map(final FileChannel channel, final long position, final long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    private static ByteBuffer slice(final ByteBuffer region, final int position, final int length) {
+        final ByteBuffer record = region.duplicate();
+        record.limit(position + length);
+        record.position(position);
+        return record.slice();
+    }
+
+    private interface Layout {
+
+        ByteBuffer record(int index);
+    }
+
+    private static final class FixedLayout implements Layout {
+
+        final private ByteBuffer[] regions;
+        final private int recordSize;
+        final private int perRegion;
+
+        private FixedLayout(final ByteBuffer[] regions, final int recordSize, final int perRegion) {
+            this.regions = regions;
+            this.recordSize = recordSize;
+            this.perRegion = perRegion;
+        }
+
+        @Override
+        public ByteBuffer record(final int index) {
+            return slice(regions[index / perRegion], (index % perRegion) * recordSize, recordSize);
+        }
+    }
+
+    private static final class PrefixedLayout implements Layout {
+
+        final private ByteBuffer[] regions;
+        final private long[] regionStarts;
+        final private long[] starts;
+
+        private PrefixedLayout(final ByteBuffer[] regions, final long[] regionStarts, final long[] starts) {
+            this.regions = regions;
+            this.regionStarts = regionStarts;
+            this.starts = starts;
+        }
+
+        @Override
+        public ByteBuffer record(final int index) {
+            final long start = starts[index];
+            final int found = Arrays.binarySearch(regionStarts, start);
+            // a record belongs to the last region starting at or before it
+            final int region = found >= 0 ? found : -found - 2;
+            final int position = (int) (start - regionStarts[region]);
+            return slice(regions[region], position + Integer.BYTES, regions[region].getInt(position));
+        }
+    }
+}
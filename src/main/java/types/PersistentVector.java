@@ -0,0 +1,334 @@
+package types;
+
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An immutable list that shares structure with the lists it was made from. Elements live in small array leaves joined
+ * by a height-balanced tree, and a vector is a window onto a tree, so {@link #tail()}, {@link #init()} and
+ * {@link #subList} are O(1), while {@link #get}, {@link #head()}, {@link #last()} and {@link #concat} are O(log n).
+ * Because {@link #subList} returns a {@code PersistentVector}, the {@code head}/{@code tail}/{@code init}
+ * family in {@code Collections} shares structure too. A slice keeps the whole tree it was cut from reachable;
+ * {@link #concat} trims it away
+ */
+public final class PersistentVector<T> extends AbstractList<T> {
+
+    static final int LEAF_SIZE = 32;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(new Leaf(new Object[0], 0, 0), 0, 0);
+
+    final private Node root;
+    final private int offset;
+    final private int size;
+
+    private PersistentVector(final Node root, final int offset, final int size) {
+        this.root = root;
+        this.offset = offset;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> PersistentVector<T> of(final T... ts) {
+        return copyOf(Arrays.asList(ts));
+    }
+
+    /**
+     * Copy a collection into a vector, or return it unchanged if it already is one
+     */
+    public static <T> PersistentVector<T> copyOf(final Collection<? extends T> ts) {
+        if (ts instanceof PersistentVector) {
+            @SuppressWarnings("unchecked") final PersistentVector<T> vector = (PersistentVector<T>) ts;
+            return vector;
+        }
+        if (ts.isEmpty()) {
+            return empty();
+        }
+        return new PersistentVector<>(build(ts.toArray(), 0, ts.size()), 0, ts.size());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        return (T) root.get(offset + index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public T head() {
+        return get(0);
+    }
+
+    public T last() {
+        return get(size - 1);
+    }
+
+    public PersistentVector<T> tail() {
+        return subList(1, size);
+    }
+
+    public PersistentVector<T> init() {
+        return subList(0, size - 1);
+    }
+
+    @Override
+    public PersistentVector<T> subList(final int fromIndex, final int toIndex) {
+        if (fromIndex < 0 || toIndex > size || fromIndex > toIndex) {
+            throw new IndexOutOfBoundsException("From: " + fromIndex + ", To: " + toIndex + ", Size: " + size);
+        }
+        return new PersistentVector<>(root, offset + fromIndex, toIndex - fromIndex);
+    }
+
+    public PersistentVector<T> concat(final Collection<? extends T> ts) {
+        final PersistentVector<? extends T> other = copyOf(ts);
+        if (other.isEmpty()) {
+            return this;
+        }
+        if (isEmpty()) {
+            @SuppressWarnings("unchecked") final PersistentVector<T> vector = (PersistentVector<T>) other;
+            return vector;
+        }
+        return new PersistentVector<>(join(trimmed(), other.trimmed()), 0, size + other.size);
+    }
+
+    public PersistentVector<T> appended(final T t) {
+        return new PersistentVector<>(join(trimmed(), new Leaf(new Object[]{t}, 0, 1)), 0, size + 1);
+    }
+
+    public PersistentVector<T> prepended(final T t) {
+        return new PersistentVector<>(join(new Leaf(new Object[]{t}, 0, 1), trimmed()), 0, size + 1);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            final private Deque<Node> pending = new ArrayDeque<>();
+            private Leaf leaf;
+            private int position;
+            private int remaining = size;
+
+            {
+                descend(root, offset);
+            }
+
+            @Override
+            public boolean hasNext() {
+                return remaining > 0;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (remaining == 0) {
+                    throw new NoSuchElementException();
+                }
+                while (position == leaf.to) {
+                    descend(pending.pop(), 0);
+                }
+                remaining--;
+                return (T) leaf.elements[position++];
+            }
+
+            private void descend(final Node from, final int index) {
+                Node node = from;
+                int i = index;
+                while (node instanceof Concat) {
+                    final Concat concat = (Concat) node;
+                    if (i < concat.left.size()) {
+                        pending.push(concat.right);
+                        node = concat.left;
+                    } else {
+                        i -= concat.left.size();
+                        node = concat.right;
+                    }
+                }
+                leaf = (Leaf) node;
+                position = leaf.from + i;
+            }
+        };
+    }
+
+    private Node trimmed() {
+        return offset == 0 && size == root.size() ? root : slice(root, offset, offset + size);
+    }
+
+    private static Node build(final Object[] elements, final int from, final int to) {
+        if (to - from <= LEAF_SIZE) {
+            return new Leaf(elements, from, to);
+        }
+        final int mid = from + (to - from) / 2;
+        return new Concat(build(elements, from, mid), build(elements, mid, to));
+    }
+
+    private static Node slice(final Node node, final int from, final int to) {
+        if (node instanceof Leaf) {
+            final Leaf leaf = (Leaf) node;
+            return new Leaf(leaf.elements, leaf.from + from, leaf.from + to);
+        }
+        final Concat concat = (Concat) node;
+        final int leftSize = concat.left.size();
+        if (to <= leftSize) {
+            return slice(concat.left, from, to);
+        }
+        if (from >= leftSize) {
+            return slice(concat.right, from - leftSize, to - leftSize);
+        }
+        return join(slice(concat.left, from, leftSize), slice(concat.right, 0, to - leftSize));
+    }
+
+    /**
+     * Join two trees, keeping every node's children within one level of each other's height. Small leaves that meet
+     * at the seam are merged so that building a vector one element at a time still fills whole leaves
+     */
+    private static Node join(final Node left, final Node right) {
+        if (left.height() > right.height() + 1) {
+            final Concat concat = (Concat) left;
+            return balance(concat.left, join(concat.right, right));
+        }
+        if (right.height() > left.height() + 1) {
+            final Concat concat = (Concat) right;
+            return balance(join(left, concat.left), concat.right);
+        }
+        if (left instanceof Leaf && right instanceof Leaf && fits(left, right)) {
+            return merge((Leaf) left, (Leaf) right);
+        }
+        if (left instanceof Concat && right instanceof Leaf) {
+            final Concat concat = (Concat) left;
+            if (concat.right instanceof Leaf && fits(concat.right, right)) {
+                return new Concat(concat.left, merge((Leaf) concat.right, (Leaf) right));
+            }
+        }
+        if (left instanceof Leaf && right instanceof Concat) {
+            final Concat concat = (Concat) right;
+            if (concat.left instanceof Leaf && fits(left, concat.left)) {
+                return new Concat(merge((Leaf) left, (Leaf) concat.left), concat.right);
+            }
+        }
+        return new Concat(left, right);
+    }
+
+    private static Node balance(final Node left, final Node right) {
+        if (left.height() > right.height() + 1) {
+            final Concat heavy = (Concat) left;
+            if (heavy.left.height() >= heavy.right.height()) {
+                return new Concat(heavy.left, new Concat(heavy.right, right));
+            }
+            final Concat inner = (Concat) heavy.right;
+            return new Concat(new Concat(heavy.left, inner.left), new Concat(inner.right, right));
+        }
+        if (right.height() > left.height() + 1) {
+            final Concat heavy = (Concat) right;
+            if (heavy.right.height() >= heavy.left.height()) {
+                return new Concat(new Concat(left, heavy.left), heavy.right);
+            }
+            final Concat inner = (Concat) heavy.left;
+            return new Concat(new Concat(left, inner.left), new Concat(inner.right, heavy.right));
+        }
+        return new Concat(left, right);
+    }
+
+    private static boolean fits(final Node left, final Node right) {
+        return left.size() + right.size() <= LEAF_SIZE;
+    }
+
+    private static Leaf merge(final Leaf left, final Leaf right) {
+        final Object[] elements = new Object[left.size() + right.size()];
+        System.arraycopy(left.elements, left.from, elements, 0, left.size());
+        System.arraycopy(right.elements, right.from, elements, left.size(), right.size());
+        return new Leaf(elements, 0, elements.length);
+    }
+
+    private abstract static class Node {
+
+        abstract int size();
+
+        abstract int height();
+
+        abstract Object get(int index);
+    }
+
+    private static final class Leaf extends Node {
+
+        final private Object[] elements;
+        final private int from;
+        final private int to;
+
+        private Leaf(final Object[] elements, final int from, final int to) {
+            this.elements = elements;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        int size() {
+            return to - from;
+        }
+
+        @Override
+        int height() {
+            return 0;
+        }
+
+        @Override
+        Object get(final int index) {
+            return elements[from + index];
+        }
+    }
+
+    private static final class Concat extends Node {
+
+        final private Node left;
+        final private Node right;
+        final private int size;
+        final private int height;
+
+        private Concat(final Node left, final Node right) {
+            this.left = left;
+            this.right = right;
+            this.size = left.size() + right.size();
+            this.height = Math.max(left.height(), right.height()) + 1;
+        }
+
+        @Override
+        int size() {
+            return size;
+        }
+
+        @Override
+        int height() {
+            return height;
+        }
+
+        @Override
+        Object get(final int index) {
+            Node node = this;
+            int i = index;
+            while (node instanceof Concat) {
+                final Concat concat = (Concat) node;
+                if (i < concat.left.size()) {
+                    node = concat.left;
+                } else {
+                    i -= concat.left.size();
+                    node = concat.right;
+                }
+            }
+            return node.get(i);
+        }
+    }
+}
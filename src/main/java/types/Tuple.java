@@ -2,10 +2,15 @@ package types;
 
 import java.util.Objects;
 
+/**
+ * An immutable pair of values. The hash code is computed once, on first use, so a tuple that is used as a hash key
+ * must not have its components mutated afterwards
+ */
 public class Tuple<A, B> {
 
     final private A one;
     final private B two;
+    private int hash;
 
     public Tuple(final A one, final B two) {
         this.one = one;
@@ -52,6 +57,19 @@ public class Tuple<A, B> {
 
     @Override
     public int hashCode() {
-        return Objects.hash(one, two);
+        int h = hash;
+        if (h == 0) {
+            h = hash(one, two);
+            hash = h;
+        }
+        return h;
+    }
+
+    /**
+     * The hash code of a tuple of {@code one} and {@code two}, without creating the tuple. Equal to
+     * {@code Objects.hash(one, two)} but doesn't allocate a varargs array
+     */
+    public static int hash(final Object one, final Object two) {
+        return 31 * (31 + Objects.hashCode(one)) + Objects.hashCode(two);
     }
 }
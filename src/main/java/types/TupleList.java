@@ -0,0 +1,107 @@
+package types;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiConsumer;
+
+/**
+ * A list of tuples stored as two parallel columns rather than one {@link Tuple} per element. Storing them costs no
+ * per-element objects, but reading an element through {@link #get} or the iterator creates a new tuple each time. To
+ * read without allocating, use {@link #forEach(BiConsumer)}, {@link #getOne}/{@link #getTwo}, or the columns
+ * themselves from {@link #getOnes()} and {@link #getTwos()}
+ */
+public class TupleList<A, B> extends AbstractList<Tuple<A, B>> implements RandomAccess {
+
+    final private List<A> ones;
+    final private List<B> twos;
+
+    public TupleList() {
+        this(new ArrayList<>(), new ArrayList<>());
+    }
+
+    public TupleList(final int initialCapacity) {
+        this(new ArrayList<>(initialCapacity), new ArrayList<>(initialCapacity));
+    }
+
+    /**
+     * Create a tuple list over two existing columns. The columns are not copied, so they must not be resized other than
+     * through this list
+     */
+    public TupleList(final List<A> ones, final List<B> twos) {
+        if (ones.size() != twos.size()) {
+            throw new IllegalArgumentException("Columns must be the same size");
+        }
+        this.ones = ones;
+        this.twos = twos;
+    }
+
+    public List<A> getOnes() {
+        return ones;
+    }
+
+    public List<B> getTwos() {
+        return twos;
+    }
+
+    public A getOne(final int index) {
+        return ones.get(index);
+    }
+
+    public B getTwo(final int index) {
+        return twos.get(index);
+    }
+
+    public boolean add(final A one, final B two) {
+        ones.add(one);
+        twos.add(two);
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Pass each pair of values to {@code action} straight from the columns, without creating tuples
+     */
+    public void forEach(final BiConsumer<? super A, ? super B> action) {
+        for (int i = 0; i < ones.size(); i++) {
+            action.accept(ones.get(i), twos.get(i));
+        }
+    }
+
+    @Override
+    public Tuple<A, B> get(final int index) {
+        return new Tuple<>(ones.get(index), twos.get(index));
+    }
+
+    @Override
+    public Tuple<A, B> set(final int index, final Tuple<A, B> tuple) {
+        return new Tuple<>(ones.set(index, tuple._1()), twos.set(index, tuple._2()));
+    }
+
+    @Override
+    public void add(final int index, final Tuple<A, B> tuple) {
+        ones.add(index, tuple._1());
+        twos.add(index, tuple._2());
+        modCount++;
+    }
+
+    @Override
+    public Tuple<A, B> remove(final int index) {
+        final Tuple<A, B> removed = new Tuple<>(ones.remove(index), twos.remove(index));
+        modCount++;
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        ones.clear();
+        twos.clear();
+        modCount++;
+    }
+
+    @Override
+    public int size() {
+        return ones.size();
+    }
+}
@@ -0,0 +1,187 @@
+package types;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A map keyed on two values, for use in place of a {@code Map<Tuple<A, B>, V>}. Keys are stored in flat arrays with
+ * open addressing (linear probing), so lookups by {@code (a, b)} never create a {@link Tuple} to probe with
+ */
+public class TupleMap<A, B, V> {
+
+    final private static Object FREE = new Object();
+    final private static float LOAD_FACTOR = 0.5f;
+
+    private Object[] ones;
+    private Object[] twos;
+    private Object[] values;
+    private int[] hashes;
+    private int size;
+
+    public TupleMap() {
+        this(16);
+    }
+
+    public TupleMap(final int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(final A a, final B b) {
+        return slot(a, b, Tuple.hash(a, b)) >= 0;
+    }
+
+    public V get(final A a, final B b) {
+        return getOrDefault(a, b, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(final A a, final B b, final V defaultValue) {
+        final int slot = slot(a, b, Tuple.hash(a, b));
+        return slot >= 0 ? (V) values[slot] : defaultValue;
+    }
+
+    /**
+     * Associate {@code value} with {@code (a, b)}, returning the previous value or null if there wasn't one
+     */
+    @SuppressWarnings("unchecked")
+    public V put(final A a, final B b, final V value) {
+        final int hash = Tuple.hash(a, b);
+        final int slot = slot(a, b, hash);
+        if (slot >= 0) {
+            final V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+
+        if (size + 1 > ones.length * LOAD_FACTOR) {
+            resize(ones.length * 2);
+        }
+        insert(a, b, value, hash);
+        size++;
+        return null;
+    }
+
+    /**
+     * Remove the mapping for {@code (a, b)}, returning its value or null if there wasn't one
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(final A a, final B b) {
+        int slot = slot(a, b, Tuple.hash(a, b));
+        if (slot < 0) {
+            return null;
+        }
+        final V removed = (V) values[slot];
+        size--;
+
+        // shift later entries of the probe run back so no lookup passes over the gap
+        final int mask = ones.length - 1;
+        int next = slot;
+        while (true) {
+            next = (next + 1) & mask;
+            if (ones[next] == FREE) {
+                break;
+            }
+            final int home = indexFor(hashes[next]);
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                move(next, slot);
+                slot = next;
+            }
+        }
+        ones[slot] = FREE;
+        twos[slot] = null;
+        values[slot] = null;
+        return removed;
+    }
+
+    public void clear() {
+        Arrays.fill(ones, FREE);
+        Arrays.fill(twos, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Copy the mappings into a standard map keyed on tuples
+     */
+    @SuppressWarnings("unchecked")
+    public Map<Tuple<A, B>, V> toMap() {
+        final Map<Tuple<A, B>, V> map = new HashMap<>((int) (size / 0.75f) + 1);
+        for (int i = 0; i < ones.length; i++) {
+            if (ones[i] != FREE) {
+                map.put(new Tuple<>((A) ones[i], (B) twos[i]), (V) values[i]);
+            }
+        }
+        return map;
+    }
+
+    private int slot(final Object a, final Object b, final int hash) {
+        final int mask = ones.length - 1;
+        for (int i = indexFor(hash); ones[i] != FREE; i = (i + 1) & mask) {
+            if (hashes[i] == hash && Objects.equals(ones[i], a) && Objects.equals(twos[i], b)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(final Object a, final Object b, final Object value, final int hash) {
+        final int mask = ones.length - 1;
+        int i = indexFor(hash);
+        while (ones[i] != FREE) {
+            i = (i + 1) & mask;
+        }
+        ones[i] = a;
+        twos[i] = b;
+        values[i] = value;
+        hashes[i] = hash;
+    }
+
+    private void move(final int from, final int to) {
+        ones[to] = ones[from];
+        twos[to] = twos[from];
+        values[to] = values[from];
+        hashes[to] = hashes[from];
+    }
+
+    private void resize(final int capacity) {
+        final Object[] oldOnes = ones;
+        final Object[] oldTwos = twos;
+        final Object[] oldValues = values;
+        final int[] oldHashes = hashes;
+        allocate(capacity);
+        for (int i = 0; i < oldOnes.length; i++) {
+            if (oldOnes[i] != FREE) {
+                insert(oldOnes[i], oldTwos[i], oldValues[i], oldHashes[i]);
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        ones = new Object[capacity];
+        Arrays.fill(ones, FREE);
+        twos = new Object[capacity];
+        values = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    private int indexFor(final int hash) {
+        // spread the bits so tuples of small integers don't all land in the same few slots
+        final int spread = (hash ^ (hash >>> 16)) * 0x9E3779B9;
+        return spread >>> (32 - Integer.numberOfTrailingZeros(ones.length));
+    }
+
+    private static int tableSizeFor(final int expectedSize) {
+        final int minimum = (int) Math.min((long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR), 1 << 30);
+        return Math.max(2, Integer.highestOneBit(minimum - 1) << 1);
+    }
+}
@@ -0,0 +1,181 @@
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Consumer} that collects elements into batches for a downstream consumer, as returned by
+ * {@code Consumers.batching}. Any number of threads may call {@link #accept} at once; elements pass through a
+ * lock-free queue to a single worker thread, which hands a batch to the downstream consumer once it holds
+ * {@code maxSize} elements, once its oldest element has waited {@code maxDelay}, or on {@link #close}.
+ * <p>
+ * At most {@code capacity} elements can be waiting or in a batch being consumed; past that {@link #accept} blocks
+ * until the downstream consumer catches up. The batch list is a read-only view that is reused, so the downstream consumer
+ * must copy it if it needs the elements after it returns. If it throws, even an {@link Error}, later batches are still
+ * delivered and the first failure is rethrown by {@link #close}
+ */
+public final class BatchingConsumer<T> implements Consumer<T>, AutoCloseable {
+
+    final private int maxSize;
+    final private long maxDelayNanos;
+    final private Consumer<List<T>> downstream;
+    final private MpscQueue<T> queue = new MpscQueue<>();
+    final private Semaphore permits;
+    final private AtomicInteger queued = new AtomicInteger();
+    final private AtomicInteger producing = new AtomicInteger();
+    final private List<T> batch;
+    final private List<T> batchView;
+    final private Thread worker;
+
+    private volatile boolean closed;
+    private volatile boolean waiting;
+    private volatile int wakeThreshold = 1;
+    private Throwable failure;
+
+    BatchingConsumer(final int maxSize, final long maxDelayNanos, final int capacity, final Consumer<List<T>> downstream) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Batch size must be > 0");
+        }
+        if (capacity < maxSize) {
+            throw new IllegalArgumentException("Capacity must be at least the batch size");
+        }
+        if (maxDelayNanos < 0) {
+            throw new IllegalArgumentException("Delay must not be negative");
+        }
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelayNanos;
+        this.downstream = downstream;
+        this.permits = new Semaphore(capacity);
+        this.batch = new ArrayList<>(maxSize);
+        this.batchView = java.util.Collections.unmodifiableList(batch);
+        this.worker = new Thread(this::work, "batching-consumer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Queue an element for the next batch, blocking while the batching consumer is at capacity
+     *
+     * @throws NullPointerException if {@code t} is null
+     * @throws IllegalStateException if this has been closed
+     */
+    @Override
+    public void accept(final T t) {
+        Objects.requireNonNull(t);
+        permits.acquireUninterruptibly();
+        producing.incrementAndGet();
+        try {
+            if (closed) {
+                permits.release();
+                throw new IllegalStateException("Batching consumer is closed");
+            }
+            queue.offer(t);
+        } finally {
+            producing.decrementAndGet();
+        }
+        if (queued.incrementAndGet() >= wakeThreshold && waiting) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    /**
+     * Deliver everything accepted so far and stop the worker thread, waiting for it to finish
+     *
+     * @throws RuntimeException the first exception thrown by the downstream consumer, if any, or a
+     * {@link CompletionException} wrapping it if it was a checked exception
+     * @throws Error the first error thrown by the downstream consumer, if it failed with one
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            LockSupport.unpark(worker);
+        }
+        if (Thread.currentThread() != worker) {
+            boolean interrupted = false;
+            while (worker.isAlive()) {
+                try {
+                    worker.join();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new CompletionException(failure);
+        }
+    }
+
+    private void work() {
+        long oldest = 0;
+        while (true) {
+            T t;
+            while (batch.size() < maxSize && (t = queue.poll()) != null) {
+                if (batch.isEmpty()) {
+                    oldest = System.nanoTime();
+                }
+                batch.add(t);
+                queued.decrementAndGet();
+            }
+
+            final long waited = System.nanoTime() - oldest;
+            if (batch.size() == maxSize || (!batch.isEmpty() && waited >= maxDelayNanos)) {
+                deliver();
+                continue;
+            }
+            if (closed) {
+                if (producing.get() == 0 && queue.isEmpty()) {
+                    if (!batch.isEmpty()) {
+                        deliver();
+                    }
+                    return;
+                }
+                Thread.yield();
+                continue;
+            }
+
+            // sleep until the batch could fill or its oldest element is due, rechecking after announcing the wait so
+            // a producer that queued in between is not missed
+            wakeThreshold = batch.isEmpty() ? 1 : maxSize - batch.size();
+            waiting = true;
+            if (queued.get() < wakeThreshold && !closed) {
+                if (batch.isEmpty()) {
+                    LockSupport.park(this);
+                } else {
+                    LockSupport.parkNanos(this, maxDelayNanos - waited);
+                }
+            }
+            waiting = false;
+        }
+    }
+
+    private void deliver() {
+        final int size = batch.size();
+        try {
+            downstream.accept(batchView);
+        } catch (final Throwable e) {
+            // keep the worker alive whatever the downstream consumer throws, or producers would block forever
+            if (failure == null) {
+                failure = e;
+            }
+        } finally {
+            batch.clear();
+            permits.release(size);
+        }
+    }
+}
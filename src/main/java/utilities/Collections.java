@@ -1,44 +1,95 @@
 package utilities;
 
+import types.Bitmap;
+import types.IndexedCollection;
+import types.IntList;
+import types.IntObjMap;
+import types.IntObjTuple;
+import types.LongLongMap;
+import types.LongList;
+import types.MappedRecords;
 import types.Pair;
+import types.PersistentVector;
 import types.Tuple;
+import types.TupleList;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.RandomAccess;
+import java.util.SortedSet;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static utilities.Predicates.empty;
-import static utilities.Predicates.not;
 import static utilities.Predicates.odd;
-import static utilities.Streams.reverseRange;
 
 public class Collections {
 
+    static final int PARALLEL_THRESHOLD = 1 << 13;
+
     /** CREATORS **/
 
     public static <T> Collection<T> newCollection() {
         return new ArrayList<>();
     }
 
+    @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T> Collection<T> newCollection(final T... ts) {
         return Arrays.stream(ts).collect(Collectors.toList());
     }
 
     public static <T> Collection<T> fill(final T t, final int times) {
-        return IntStream.range(0, times).mapToObj(i -> t).collect(Collectors.toList());
+        return Instrumentation.measure("Collections.fill", () -> Math.max(times, 0),
+                () -> IntStream.range(0, times).mapToObj(i -> t).collect(Collectors.toList()), Collection::size);
     }
 
     public static <T> Collection<T> fill(final Supplier<T> supplier, final int times) {
-        return IntStream.range(0, times).mapToObj(i -> supplier.get()).collect(Collectors.toList());
+        return Instrumentation.measure("Collections.fill", () -> Math.max(times, 0),
+                () -> IntStream.range(0, times).mapToObj(i -> supplier.get()).collect(Collectors.toList()), Collection::size);
+    }
+
+    /**
+     * Like {@code fill}, but up to {@code concurrency} calls to {@code supplier} run at once, for suppliers that wait on
+     * I/O. The results are in call order whatever order the calls finish in. If a call fails the rest are cancelled
+     * and a {@link java.util.concurrent.CompletionException} caused by the failure is thrown, once the cancelled calls
+     * have returned or a second has passed
+     */
+    public static <T> Collection<T> fillConcurrent(final Supplier<T> supplier, final int times, final int concurrency) {
+        return fillConcurrent(supplier, times, concurrency, null);
+    }
+
+    /**
+     * Like {@code fillConcurrent}, but if the calls have not all finished within {@code timeout} they are cancelled and
+     * a {@link java.util.concurrent.CompletionException} caused by a {@link java.util.concurrent.TimeoutException} is
+     * thrown, at most a tenth of {@code timeout} later
+     */
+    public static <T> Collection<T> fillConcurrent(final Supplier<T> supplier, final int times, final int concurrency, final Duration timeout) {
+        return Instrumentation.measure("Collections.fillConcurrent", () -> Math.max(times, 0), () -> {
+            final AtomicReferenceArray<T> filled = new AtomicReferenceArray<>(Math.max(times, 0));
+            FanOut.run(times, concurrency, timeout, i -> filled.set(i, supplier.get()));
+            final List<T> results = new ArrayList<>(filled.length());
+            for (int i = 0; i < filled.length(); i++) {
+                results.add(filled.get(i));
+            }
+            return results;
+        }, Collection::size);
     }
 
     /** VALIDATORS **/
@@ -53,32 +104,104 @@ public class Collections {
 
     /** GETTERS **/
 
+    /**
+     * Get the element at {@code index}. Lists are read directly, deques and sorted sets are read from whichever end is
+     * nearer, and only other collections fall back to walking an iterator
+     */
     public static <T> T get(final Collection<T> ts, final int index) {
-        return new ArrayList<>(ts).get(index);
+        return Instrumentation.measure("Collections.get", ts::size, () -> elementAt(ts, index), t -> 1);
     }
 
+    /**
+     * {@code get} without instrumentation, for the views and operations built on it
+     */
+    static <T> T elementAt(final Collection<T> ts, final int index) {
+        if (ts instanceof List) {
+            return ((List<T>) ts).get(index);
+        }
+        validateIndex(index, ts.size());
+
+        final boolean fromEnd = index >= ts.size() / 2;
+        if (ts instanceof Deque) {
+            final Deque<T> deque = (Deque<T>) ts;
+            return fromEnd ? walk(deque.descendingIterator(), ts.size() - 1 - index) : walk(deque.iterator(), index);
+        }
+        if (ts instanceof NavigableSet) {
+            final NavigableSet<T> set = (NavigableSet<T>) ts;
+            return fromEnd ? walk(set.descendingIterator(), ts.size() - 1 - index) : walk(set.iterator(), index);
+        }
+        if (ts instanceof SortedSet && index == ts.size() - 1) {
+            return ((SortedSet<T>) ts).last();
+        }
+        return walk(ts.iterator(), index);
+    }
+
+    /**
+     * Slice a collection from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive). If {@code ts} is a
+     * {@link List} the slice is a {@link List#subList} view backed by it, so it costs nothing to create but reflects
+     * later changes to {@code ts}. Any other collection is sliced into a snapshot copy of just the selected elements
+     */
     public static <T> Collection<T> slice(final Collection<T> ts, final int fromIndex, final int toIndex) {
-        return new ArrayList<>(ts).subList(fromIndex, toIndex);
+        return Instrumentation.measure("Collections.slice", ts::size, () -> rangeOf(ts, fromIndex, toIndex), Collection::size);
     }
 
-    public static <T> Optional<T> find(final Collection<T> ts, final Predicate<T> predicate) {
-        for (final T t : ts) {
-            if (predicate.test(t)) {
-                return Optional.of(t);
+    private static <T> Collection<T> rangeOf(final Collection<T> ts, final int fromIndex, final int toIndex) {
+        if (ts instanceof List) {
+            return ((List<T>) ts).subList(fromIndex, toIndex);
+        }
+        validateRange(fromIndex, toIndex, ts.size());
+
+        final List<T> sliced = new ArrayList<>(toIndex - fromIndex);
+        final boolean fromEnd = fromIndex >= ts.size() - toIndex;
+        if (fromEnd && (ts instanceof Deque || ts instanceof NavigableSet)) {
+            final Iterator<T> descending = ts instanceof Deque ? ((Deque<T>) ts).descendingIterator() : ((NavigableSet<T>) ts).descendingIterator();
+            skip(descending, ts.size() - toIndex);
+            for (int i = fromIndex; i < toIndex; i++) {
+                sliced.add(descending.next());
             }
+            java.util.Collections.reverse(sliced);
+            return sliced;
+        }
+
+        final Iterator<T> iterator = ts.iterator();
+        skip(iterator, fromIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            sliced.add(iterator.next());
         }
-        return Optional.empty();
+        return sliced;
+    }
+
+    /**
+     * Find the first element matching {@code predicate}, stopping there. When instrumented, its input size is the
+     * number of elements tested rather than the size of {@code ts}
+     */
+    public static <T> Optional<T> find(final Collection<T> ts, final Predicate<T> predicate) {
+        final int[] tested = new int[1];
+        return Instrumentation.measure("Collections.find", () -> tested[0], () -> {
+            for (final T t : ts) {
+                tested[0]++;
+                if (predicate.test(t)) {
+                    return Optional.of(t);
+                }
+            }
+            return Optional.<T>empty();
+        }, found -> found.isPresent() ? 1 : 0);
     }
 
+    /**
+     * Find the index of the first element matching {@code predicate}, stopping there. Instrumented like {@code find}
+     */
     public static <T> OptionalInt findIndex(final Collection<T> ts, final Predicate<T> predicate) {
-        int index = 0;
-        for (final T t : ts) {
-            if (predicate.test(t)) {
-                return OptionalInt.of(index);
+        final int[] tested = new int[1];
+        return Instrumentation.measure("Collections.findIndex", () -> tested[0], () -> {
+            for (final T t : ts) {
+                if (predicate.test(t)) {
+                    return OptionalInt.of(tested[0]++);
+                }
+                tested[0]++;
             }
-            index++;
-        }
-        return OptionalInt.empty();
+            return OptionalInt.empty();
+        }, found -> found.isPresent() ? 1 : 0);
     }
 
 
@@ -96,29 +219,57 @@ public class Collections {
     }
 
     public static <T> T last(final Collection<T> ts) {
-        return get(ts, ts.size() - 1);
+        return Instrumentation.measure("Collections.last", ts::size, () -> elementAt(ts, ts.size() - 1), t -> 1);
     }
 
     public static <T> T head(final Collection<T> ts) {
-        return get(ts, 0);
+        return Instrumentation.measure("Collections.head", ts::size, () -> elementAt(ts, 0), t -> 1);
     }
 
     public static <T> Collection<T> init(final Collection<T> ts) {
-        return slice(ts, 0, ts.size() - 1);
+        return Instrumentation.measure("Collections.init", ts::size, () -> rangeOf(ts, 0, ts.size() - 1), Collection::size);
     }
 
     public static <T> Collection<T> tail(final Collection<T> ts) {
-        return slice(ts, 1, ts.size());
+        return Instrumentation.measure("Collections.tail", ts::size, () -> rangeOf(ts, 1, ts.size()), Collection::size);
     }
 
     public static <T> Collection<T> mid(final Collection<T> ts) {
-        return slice(ts, 1, ts.size() - 1);
+        return Instrumentation.measure("Collections.mid", ts::size, () -> rangeOf(ts, 1, ts.size() - 1), Collection::size);
     }
 
     /** TRANSFORMERS **/
 
+    /**
+     * Flatten collections into one. If there is at least one and they are all {@link PersistentVector}s they are
+     * concatenated in O(k log n), sharing structure with the inputs, and the result is an immutable
+     * {@code PersistentVector}; otherwise they are copied into a new, mutable list
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
     public static <T> Collection<T> flatten(final Collection<T>... cs) {
-        return Arrays.stream(cs).flatMap(Collection::stream).collect(Collectors.toList());
+        return Instrumentation.measure("Collections.flatten", () -> cs.length, () -> {
+            if (cs.length > 0 && Arrays.stream(cs).allMatch(c -> c instanceof PersistentVector)) {
+                PersistentVector<T> concatenated = PersistentVector.empty();
+                for (final Collection<T> c : cs) {
+                    concatenated = concatenated.concat(c);
+                }
+                return concatenated;
+            }
+            return Arrays.stream(cs).flatMap(Collection::stream).collect(Collectors.<T>toList());
+        }, Collection::size);
+    }
+
+    /**
+     * Flatten collections into a read-only view rather than a copy. The view is built in O(k) for k collections, finds
+     * an index in O(log k) (plus the cost of indexing into that collection) and its spliterator hands whole collections
+     * to parallel workers. The collections must not change size while the view is in use; if one does, {@code get}
+     * throws {@link java.util.ConcurrentModificationException} and iterating gives undefined results
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> List<T> flattenView(final Collection<T>... cs) {
+        return new CompositeList<>(Arrays.asList(cs));
     }
 
     public static <T> Collection<Pair<T>> toPairs(final Collection<T> ts) {
@@ -126,15 +277,13 @@ public class Collections {
             throw new IllegalArgumentException("Odd number of elements");
         }
 
-        return IntStream.iterate(2, i -> i + 2).limit(ts.size() / 2)
-                .mapToObj(i -> new Pair<>(get(ts, i - 2), get(ts, i - 1)))
-                .collect(Collectors.toList());
+        return Instrumentation.measure("Collections.toPairs", ts::size,
+                () -> StreamOps.toPairs(ts.stream()).collect(toArrayList(ts.size() / 2)), Collection::size);
     }
 
     public static <T> Collection<Pair<T>> toOverlappingPairs(final Collection<T> ts) {
-        return IntStream.range(1, ts.size())
-                .mapToObj(i -> new Pair<>(get(ts, i - 1), get(ts, i)))
-                .collect(Collectors.toList());
+        return Instrumentation.measure("Collections.toOverlappingPairs", ts::size,
+                () -> StreamOps.toOverlappingPairs(ts.stream()).collect(toArrayList(ts.size() - 1)), Collection::size);
     }
 
     public static <T> Collection<Tuple<Integer, T>> indexed(final Collection<T> ts) {
@@ -142,64 +291,188 @@ public class Collections {
     }
 
     public static <T> Collection<Tuple<Integer, T>> indexedFrom(final Collection<T> ts, final int startIndex) {
-        return IntStream.range(0, ts.size())
-                .mapToObj(i -> new Tuple<>(i + startIndex, get(ts, i)))
-                .collect(Collectors.toList());
+        return Instrumentation.measure("Collections.indexedFrom", ts::size,
+                () -> StreamOps.indexedFrom(ts.stream(), startIndex).collect(toArrayList(ts.size())), Collection::size);
     }
 
-    public static <A, B> Collection<Tuple<A, B>> zip(final Collection<A> as, final Collection<B> bs) {
-        if (as.size() != bs.size()) {
-            throw new IllegalArgumentException("Cannot zip two collections of different sizes");
+    public static <T> Collection<IntObjTuple<T>> intIndexed(final Collection<T> ts) {
+        return intIndexedFrom(ts, 0);
+    }
+
+    public static <T> Collection<IntObjTuple<T>> intIndexedFrom(final Collection<T> ts, final int startIndex) {
+        return Instrumentation.measure("Collections.intIndexedFrom", ts::size,
+                () -> StreamOps.intIndexedFrom(ts.stream(), startIndex).collect(toArrayList(ts.size())), Collection::size);
+    }
+
+    /**
+     * Pass each element and its index to {@code consumer} without boxing the index or allocating a tuple
+     */
+    public static <T> void indexed(final Collection<T> ts, final IntObjConsumer<T> consumer) {
+        indexedFrom(ts, 0, consumer);
+    }
+
+    public static <T> void indexedFrom(final Collection<T> ts, final int startIndex, final IntObjConsumer<T> consumer) {
+        Instrumentation.measure("Collections.indexedFrom", ts::size, () -> forEachIndexed(ts, startIndex, consumer), ts::size);
+    }
+
+    private static <T> void forEachIndexed(final Collection<T> ts, final int startIndex, final IntObjConsumer<T> consumer) {
+        int index = startIndex;
+        for (final T t : ts) {
+            consumer.accept(index++, t);
         }
+    }
 
-        return indexed(bs).stream()
-                .map(tuple -> new Tuple<>(get(as, tuple._1()), tuple._2()))
-                .collect(Collectors.toList());
+    public static <A, B> Collection<Tuple<A, B>> zip(final Collection<A> as, final Collection<B> bs) {
+        validateSameSize(as.size(), bs.size());
+
+        return Instrumentation.measure("Collections.zip", as::size,
+                () -> new TupleList<>(new ArrayList<>(as), new ArrayList<>(bs)), Collection::size);
     }
 
+    /**
+     * Zip two collections straight into a map, throwing an {@link IllegalStateException} if {@code as} contains duplicates
+     */
     public static <A, B> Map<A, B> zipToMap(final Collection<A> as, final Collection<B> bs) {
-        return zip(as, bs).stream().collect(Collectors.toMap(Tuple::_1, Tuple::_2));
+        return zipToMap(as, bs, (BinaryOperator<B>) null);
+    }
+
+    /**
+     * Zip two collections straight into a map, combining the values of any duplicate keys with {@code merge}
+     * (e.g. {@code (first, last) -> last} to keep the last)
+     */
+    public static <A, B> Map<A, B> zipToMap(final Collection<A> as, final Collection<B> bs, final BinaryOperator<B> merge) {
+        validateSameSize(as.size(), bs.size());
+
+        return Instrumentation.measure("Collections.zipToMap", as::size, () -> {
+            final Map<A, B> zipped = new HashMap<>(hashMapCapacity(as.size()));
+            final Iterator<B> bIterator = bs.iterator();
+            for (final A a : as) {
+                final B b = bIterator.next();
+                if (zipped.containsKey(a)) {
+                    if (merge == null) {
+                        throw new IllegalStateException("Duplicate key " + a);
+                    }
+                    zipped.put(a, merge.apply(zipped.get(a), b));
+                } else {
+                    zipped.put(a, b);
+                }
+            }
+            return zipped;
+        }, Map::size);
+    }
+
+    public static <V> IntObjMap<V> zipToMap(final IntList keys, final Collection<V> values) {
+        return zipToMap(keys, values, (BinaryOperator<V>) null);
+    }
+
+    public static <V> IntObjMap<V> zipToMap(final IntList keys, final Collection<V> values, final BinaryOperator<V> merge) {
+        validateSameSize(keys.size(), values.size());
+
+        return Instrumentation.measure("Collections.zipToMap", keys::size, () -> {
+            final IntObjMap<V> zipped = new IntObjMap<>(keys.size());
+            final Iterator<V> valueIterator = values.iterator();
+            for (int i = 0; i < keys.size(); i++) {
+                final int key = keys.get(i);
+                final V value = valueIterator.next();
+                if (zipped.containsKey(key)) {
+                    if (merge == null) {
+                        throw new IllegalStateException("Duplicate key " + key);
+                    }
+                    zipped.put(key, merge.apply(zipped.get(key), value));
+                } else {
+                    zipped.put(key, value);
+                }
+            }
+            return zipped;
+        }, IntObjMap::size);
+    }
+
+    public static LongLongMap zipToMap(final LongList keys, final LongList values) {
+        return zipToMap(keys, values, null);
     }
 
+    public static LongLongMap zipToMap(final LongList keys, final LongList values, final LongBinaryOperator merge) {
+        validateSameSize(keys.size(), values.size());
+
+        return Instrumentation.measure("Collections.zipToMap", keys::size, () -> {
+            final LongLongMap zipped = new LongLongMap(keys.size());
+            for (int i = 0; i < keys.size(); i++) {
+                final long key = keys.get(i);
+                if (zipped.containsKey(key)) {
+                    if (merge == null) {
+                        throw new IllegalStateException("Duplicate key " + key);
+                    }
+                    zipped.put(key, merge.applyAsLong(zipped.getOrDefault(key, 0), values.get(i)));
+                } else {
+                    zipped.put(key, values.get(i));
+                }
+            }
+            return zipped;
+        }, LongLongMap::size);
+    }
+
+    /**
+     * Unzip a collection of tuples. If {@code zipped} is a {@link TupleList} (as returned by {@code zip}) its columns
+     * are returned as they are rather than copied
+     */
     public static <A, B> Tuple<Collection<A>, Collection<B>> unzip(final Collection<Tuple<A, B>> zipped) {
-        final Tuple<Collection<A>, Collection<B>> unzipped = new Tuple<>(newCollection(), newCollection());
-        zipped.forEach(tuple -> {
-            unzipped._1().add(tuple._1());
-            unzipped._2().add(tuple._2());
-        });
-        return unzipped;
+        return Instrumentation.measure("Collections.unzip", zipped::size, () -> {
+            if (zipped instanceof TupleList) {
+                final TupleList<A, B> tupleList = (TupleList<A, B>) zipped;
+                return new Tuple<Collection<A>, Collection<B>>(tupleList.getOnes(), tupleList.getTwos());
+            }
+
+            final Tuple<Collection<A>, Collection<B>> unzipped = new Tuple<>(new ArrayList<>(zipped.size()), new ArrayList<>(zipped.size()));
+            zipped.forEach(tuple -> {
+                unzipped._1().add(tuple._1());
+                unzipped._2().add(tuple._2());
+            });
+            return unzipped;
+        }, unzipped -> unzipped._1().size());
     }
 
+    /**
+     * Partition a collection into chunks of {@code partitionSize}, the last of which may be smaller. The partitions are
+     * lazy, read-only views over {@code ts} rather than copies, so elements later set in {@code ts} show through, and
+     * if {@code ts} changes size reading a partition throws {@link java.util.ConcurrentModificationException}. A
+     * collection that is not a {@link RandomAccess} list is copied once up front, and its partitions are views of that
+     * snapshot
+     */
     public static <T> Collection<Collection<T>> partition(final Collection<T> ts, final int partitionSize) {
         validatePartitionSize(partitionSize, 1);
 
-        return IntStream.iterate(0, i -> i + partitionSize).limit((ts.size() / partitionSize) + 1)
-                .mapToObj(i -> slice(ts, i, i + partitionSize > ts.size() ? ts.size() : i + partitionSize))
-                .filter(not(empty()))
-                .collect(Collectors.toList());
+        final int size = ts.size();
+        final int count = size / partitionSize + (size % partitionSize == 0 ? 0 : 1);
+        return new PartitionedList<>(asList(ts), count, i -> i * partitionSize, i -> Math.min(i * partitionSize + partitionSize, size));
     }
 
+    /**
+     * Partition a collection similarly to {@code partition}, but discard the last partition if it is smaller than {@code partitionSize}
+     */
     public static <T> Collection<Collection<T>> discardingPartition(final Collection<T> ts, final int partitionSize) {
         validatePartitionSize(partitionSize, 1);
 
-        return IntStream.iterate(0, i -> i + partitionSize).limit(ts.size() / partitionSize)
-                .mapToObj(i -> slice(ts, i, i + partitionSize))
-                .collect(Collectors.toList());
+        return new PartitionedList<>(asList(ts), ts.size() / partitionSize, i -> i * partitionSize, i -> i * partitionSize + partitionSize);
     }
 
     /**
      * Partition a collection similarly to {@code partition}, but guarantees no partition will have a size of 1
+     *
+     * @throws IllegalArgumentException if {@code ts} has a single element, which can only be a singleton partition
      */
     public static <T> Collection<Collection<T>> partitionNoSingletons(final Collection<T> ts, final int partitionSize) {
         validatePartitionSize(partitionSize, 2);
 
-        if (ts.size() % partitionSize == 1) {
-            final List<T> mutableTs = new ArrayList<>(ts);
-            final Collection<T> last2Ts = newCollection(mutableTs.remove(mutableTs.size() - 2), mutableTs.remove(mutableTs.size() - 1));
-
-            final Collection<Collection<T>> partitioned = partition(mutableTs, partitionSize);
-            partitioned.add(last2Ts);
-            return partitioned;
+        final int size = ts.size();
+        if (size == 1) {
+            throw new IllegalArgumentException("Cannot partition a single element without a singleton");
+        }
+        if (size % partitionSize == 1) {
+            // the last 2 elements become their own partition and the one before it is shortened to make room for them
+            final int count = size / partitionSize + 1;
+            return new PartitionedList<>(asList(ts), count,
+                    i -> i == count - 1 ? size - 2 : i * partitionSize,
+                    i -> i == count - 1 ? size : Math.min(i * partitionSize + partitionSize, size - 2));
         }
         return partition(ts, partitionSize);
     }
@@ -210,39 +483,381 @@ public class Collections {
     public static <T> Collection<Collection<T>> partitionOverlapping(final Collection<T> ts, final int partitionSize) {
         validatePartitionSize(partitionSize, 2);
 
-        final int[] indexWindow = new int[]{ 0, partitionSize };
-        final List<Collection<T>> partitionedList = new ArrayList<>();
+        final int size = ts.size();
+        final int step = partitionSize - 1;
+        final int count = size <= 1 ? 1 : (size - 1) / step + ((size - 1) % step == 0 ? 0 : 1);
+        return new PartitionedList<>(asList(ts), count, i -> i * step, i -> Math.min(i * step + partitionSize, size));
+    }
 
-        do {
-            partitionedList.add(slice(ts, indexWindow[0], indexWindow[1] > ts.size() ? ts.size() : indexWindow[1]));
-            indexWindow[0] += partitionSize - 1;
-            indexWindow[1] += partitionSize - 1;
-        }
-        while (indexWindow[1] < (ts.size() + partitionSize - 1));
+    /**
+     * Slide a window of {@code size} elements over a collection, moving it along {@code step} elements at a time. Only
+     * full windows are returned, as lazy views like those of {@code partition}. {@code toOverlappingPairs} is
+     * {@code windowed(ts, 2, 1)} and {@code discardingPartition} is {@code windowed(ts, size, size)}
+     */
+    public static <T> Collection<Collection<T>> windowed(final Collection<T> ts, final int size, final int step) {
+        validateWindow(size, step);
 
-        return partitionedList;
+        final int count = ts.size() < size ? 0 : (ts.size() - size) / step + 1;
+        return new PartitionedList<>(asList(ts), count, i -> i * step, i -> i * step + size);
     }
 
+    /**
+     * Reverse a collection. For {@link MappedRecords} the result is a live view that shares the records' mapping and
+     * costs O(1); any other collection is copied into a new list, which later changes to {@code ts} don't affect
+     */
     public static <T> Collection<T> reverse(final Collection<T> ts) {
-        return reverseRange(0, ts.size())
-                .mapToObj(i -> get(ts, i))
-                .collect(Collectors.toList());
+        return Instrumentation.measure("Collections.reverse", ts::size, () -> {
+            if (ts instanceof MappedRecords) {
+                return Collections.<T>reversedView((MappedRecords) ts);
+            }
+            final List<T> reversed = new ArrayList<>(ts);
+            java.util.Collections.reverse(reversed);
+            return reversed;
+        }, Collection::size);
+    }
+
+    /**
+     * The reversed view of {@code records}, typed as the collection {@code reverse} was given. That collection was the
+     * records themselves, so its element type is one that holds their {@code ByteBuffer}s
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> Collection<T> reversedView(final MappedRecords records) {
+        return (Collection<T>) (Collection<?>) records.reversed();
     }
 
     public static <T> Collection<Integer> indicesOf(final Collection<T> ts, final T t) {
-        return indexed(ts).stream()
-                .filter(tuple -> Objects.equals(t, tuple._2()))
-                .map(Tuple::_1)
-                .collect(Collectors.toList());
+        return Instrumentation.measure("Collections.indicesOf", ts::size, () -> {
+            if (ts instanceof IndexedCollection) {
+                return ((IndexedCollection<T>) ts).indicesOf(t);
+            }
+
+            final List<Integer> indices = new ArrayList<>();
+            int index = 0;
+            for (final T element : ts) {
+                if (Objects.equals(t, element)) {
+                    indices.add(index);
+                }
+                index++;
+            }
+            return indices;
+        }, Collection::size);
+    }
+
+    public static <T> int[] intIndicesOf(final Collection<T> ts, final T t) {
+        return Instrumentation.measure("Collections.intIndicesOf", ts::size, () -> {
+            int[] indices = new int[8];
+            int found = 0;
+            int index = 0;
+            for (final T element : ts) {
+                if (Objects.equals(t, element)) {
+                    if (found == indices.length) {
+                        indices = Arrays.copyOf(indices, found * 2);
+                    }
+                    indices[found++] = index;
+                }
+                index++;
+            }
+            return Arrays.copyOf(indices, found);
+        }, indices -> indices.length);
+    }
+
+    /**
+     * Like {@code indicesOf}, but the indices are returned as a compressed {@link Bitmap}
+     */
+    public static <T> Bitmap bitmapIndicesOf(final Collection<T> ts, final T t) {
+        return bitmapApplyPredicate(ts, element -> Objects.equals(t, element));
+    }
+
+    /**
+     * The indices of the elements that match {@code predicate}, as a compressed {@link Bitmap}. Selections by several
+     * predicates can be combined with the bitmap's {@code and}, {@code or}, {@code xor} and {@code not}, and then
+     * turned back into elements with {@code applyBitmap}
+     */
+    public static <T> Bitmap bitmapApplyPredicate(final Collection<T> ts, final Predicate<T> predicate) {
+        return Instrumentation.measure("Collections.bitmapApplyPredicate", ts::size, () -> {
+            final Bitmap selected = new Bitmap();
+            forEachIndexed(ts, 0, (index, t) -> {
+                if (predicate.test(t)) {
+                    selected.add(index);
+                }
+            });
+            return selected;
+        }, Bitmap::cardinality);
+    }
+
+    /**
+     * The elements at the indices in {@code selected}, in order
+     */
+    public static <T> Collection<T> applyBitmap(final Collection<T> ts, final Bitmap selected) {
+        return Instrumentation.measure("Collections.applyBitmap", ts::size, () -> {
+            final List<T> list = asRandomAccessList(ts);
+            final List<T> applied = new ArrayList<>(selected.cardinality());
+            selected.forEach(index -> applied.add(list.get(index)));
+            return applied;
+        }, Collection::size);
     }
 
     public static <T> Collection<T> applyPredicate(final Collection<T> ts, final Predicate<T> predicate) {
-        return ts.stream()
+        return Instrumentation.measure("Collections.applyPredicate", ts::size, () -> ts.stream()
                 .filter(predicate)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()), Collection::size);
+    }
+
+    /**
+     * Route each element to the bucket of the first predicate it matches, in a single pass that tests each element
+     * once. There is one bucket per predicate plus a last bucket for elements that match none
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> List<Collection<T>> classify(final Collection<T> ts, final Predicate<T>... predicates) {
+        return Instrumentation.measure("Collections.classify", ts::size, () -> {
+            final List<Collection<T>> buckets = newBuckets(predicates.length + 1, ts.size());
+            for (final T t : ts) {
+                buckets.get(route(t, predicates)).add(t);
+            }
+            return buckets;
+        }, Collections::placed);
+    }
+
+    /**
+     * Like {@code classify}, but each element goes into the bucket of every predicate it matches
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> List<Collection<T>> classifyAll(final Collection<T> ts, final Predicate<T>... predicates) {
+        return Instrumentation.measure("Collections.classifyAll", ts::size, () -> {
+            final List<Collection<T>> buckets = newBuckets(predicates.length + 1, ts.size());
+            for (final T t : ts) {
+                boolean matched = false;
+                for (int i = 0; i < predicates.length; i++) {
+                    if (predicates[i].test(t)) {
+                        buckets.get(i).add(t);
+                        matched = true;
+                    }
+                }
+                if (!matched) {
+                    buckets.get(predicates.length).add(t);
+                }
+            }
+            return buckets;
+        }, Collections::placed);
+    }
+
+    /**
+     * A {@link Collector} that classifies like {@code classify}. In a parallel stream each thread fills its own buckets
+     * and they are appended to each other when the threads' results are combined, so no locking is needed
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Collector<T, ?, List<Collection<T>>> classifying(final Predicate<T>... predicates) {
+        return Collector.<T, List<List<T>>, List<Collection<T>>>of(
+                () -> {
+                    final List<List<T>> buckets = new ArrayList<>(predicates.length + 1);
+                    for (int i = 0; i <= predicates.length; i++) {
+                        buckets.add(new ArrayList<>());
+                    }
+                    return buckets;
+                },
+                (buckets, t) -> buckets.get(route(t, predicates)).add(t),
+                (left, right) -> {
+                    for (int i = 0; i < left.size(); i++) {
+                        left.get(i).addAll(right.get(i));
+                    }
+                    return left;
+                },
+                buckets -> new ArrayList<>(buckets));
+    }
+
+    /**
+     * A {@link Collector} that unzips tuples like {@code unzip}. Each thread of a parallel stream appends to its own
+     * pair of columns and combining them is an array copy per column
+     */
+    public static <A, B> Collector<Tuple<A, B>, ?, Tuple<Collection<A>, Collection<B>>> unzipping() {
+        return Collector.<Tuple<A, B>, TupleList<A, B>, Tuple<Collection<A>, Collection<B>>>of(
+                TupleList::new,
+                (columns, tuple) -> columns.add(tuple._1(), tuple._2()),
+                (left, right) -> {
+                    left.getOnes().addAll(right.getOnes());
+                    left.getTwos().addAll(right.getTwos());
+                    return left;
+                },
+                Collections::unzip);
+    }
+
+    /**
+     * A {@link Collector} that partitions like {@code partition}. Elements are buffered per thread, combined with
+     * array copies, and the partitions are views over the combined buffer
+     */
+    public static <T> Collector<T, ?, Collection<Collection<T>>> partitioning(final int partitionSize) {
+        validatePartitionSize(partitionSize, 1);
+        return Collector.<T, List<T>, Collection<Collection<T>>>of(ArrayList::new, List::add, Collections::appendAll,
+                buffer -> partition(buffer, partitionSize));
+    }
+
+    /**
+     * A {@link Collector} that indexes like {@code indexed}, numbering elements in encounter order even in a parallel stream
+     */
+    public static <T> Collector<T, ?, Collection<Tuple<Integer, T>>> indexing() {
+        return Collector.<T, List<T>, Collection<Tuple<Integer, T>>>of(ArrayList::new, List::add, Collections::appendAll,
+                Collections::indexed);
+    }
+
+    private static <T> List<T> appendAll(final List<T> left, final List<T> right) {
+        left.addAll(right);
+        return left;
+    }
+
+    /**
+     * Buckets sized for an even share of {@code elements}, so evenly spread input is classified without regrowing them
+     */
+    private static <T> List<Collection<T>> newBuckets(final int count, final int elements) {
+        final List<Collection<T>> buckets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            buckets.add(new ArrayList<>(elements / count + 1));
+        }
+        return buckets;
+    }
+
+    private static <T> int route(final T t, final Predicate<T>[] predicates) {
+        for (int i = 0; i < predicates.length; i++) {
+            if (predicates[i].test(t)) {
+                return i;
+            }
+        }
+        return predicates.length;
+    }
+
+    /** PARALLEL TRANSFORMERS **/
+
+    /*
+     * These run on the common fork-join pool (or the pool they are called from) once the input reaches
+     * PARALLEL_THRESHOLD elements, and sequentially below it. They all stream over an index range, which splits
+     * exactly in half every time, and collect in encounter order so results match their sequential counterparts.
+     * When instrumented, their allocated bytes only count the calling thread
+     */
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Collection<T> parallelFlatten(final Collection<T>... cs) {
+        return Instrumentation.measure("Collections.parallelFlatten", () -> cs.length, () -> {
+            final List<T> view = new CompositeList<>(Arrays.stream(cs).map(Collections::asRandomAccessList).collect(Collectors.toList()));
+            return indexRange(view.size())
+                    .mapToObj(view::get)
+                    .collect(Collectors.toList());
+        }, Collection::size);
+    }
+
+    public static <T> Collection<Tuple<Integer, T>> parallelIndexed(final Collection<T> ts) {
+        return Instrumentation.measure("Collections.parallelIndexed", ts::size, () -> {
+            final List<T> list = asRandomAccessList(ts);
+            return indexRange(list.size())
+                    .mapToObj(i -> new Tuple<>(i, list.get(i)))
+                    .collect(Collectors.toList());
+        }, Collection::size);
+    }
+
+    public static <T> Collection<Integer> parallelIndicesOf(final Collection<T> ts, final T t) {
+        return Instrumentation.measure("Collections.parallelIndicesOf", ts::size, () -> {
+            final List<T> list = asRandomAccessList(ts);
+            return indexRange(list.size())
+                    .filter(i -> Objects.equals(t, list.get(i)))
+                    .boxed()
+                    .collect(Collectors.toList());
+        }, Collection::size);
+    }
+
+    public static <T> Collection<T> parallelApplyPredicate(final Collection<T> ts, final Predicate<T> predicate) {
+        return Instrumentation.measure("Collections.parallelApplyPredicate", ts::size, () -> {
+            final List<T> list = asRandomAccessList(ts);
+            return indexRange(list.size())
+                    .mapToObj(list::get)
+                    .filter(predicate)
+                    .collect(Collectors.toList());
+        }, Collection::size);
+    }
+
+    public static <T> Collection<T> parallelReverse(final Collection<T> ts) {
+        return Instrumentation.measure("Collections.parallelReverse", ts::size, () -> {
+            final List<T> list = asRandomAccessList(ts);
+            final int last = list.size() - 1;
+            return indexRange(list.size())
+                    .mapToObj(i -> list.get(last - i))
+                    .collect(Collectors.toList());
+        }, Collection::size);
+    }
+
+    private static long placed(final List<? extends Collection<?>> buckets) {
+        long placed = 0;
+        for (final Collection<?> bucket : buckets) {
+            placed += bucket.size();
+        }
+        return placed;
+    }
+
+    private static IntStream indexRange(final int size) {
+        final IntStream range = IntStream.range(0, size);
+        return size >= PARALLEL_THRESHOLD ? range.parallel() : range;
+    }
+
+    private static <T> List<T> asRandomAccessList(final Collection<T> ts) {
+        return ts instanceof List && ts instanceof RandomAccess ? (List<T>) ts : new ArrayList<>(ts);
+    }
+
+    private static void validateSameSize(final int aSize, final int bSize) {
+        if (aSize != bSize) {
+            throw new IllegalArgumentException("Cannot zip two collections of different sizes");
+        }
+    }
+
+    private static int hashMapCapacity(final int expectedSize) {
+        return (int) (expectedSize / 0.75f) + 1;
+    }
+
+    private static <T> Collector<T, ?, List<T>> toArrayList(final int expectedSize) {
+        return Collectors.toCollection(() -> new ArrayList<>(Math.max(expectedSize, 0)));
+    }
+
+    /**
+     * The list to take partition views of: {@code ts} itself if its {@code subList} views are cheap to index into, or a
+     * single copy otherwise (a {@code LinkedList} sublist walks from the start on every access)
+     */
+    private static <T> List<T> asList(final Collection<T> ts) {
+        return ts instanceof List && (ts instanceof RandomAccess || ts instanceof PersistentVector) ? (List<T>) ts : new ArrayList<>(ts);
+    }
+
+    private static <T> T walk(final Iterator<T> iterator, final int steps) {
+        skip(iterator, steps);
+        return iterator.next();
+    }
+
+    private static void skip(final Iterator<?> iterator, final int steps) {
+        for (int i = 0; i < steps; i++) {
+            iterator.next();
+        }
+    }
+
+    private static void validateIndex(final int index, final int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private static void validateRange(final int fromIndex, final int toIndex, final int size) {
+        if (fromIndex < 0 || toIndex > size) {
+            throw new IndexOutOfBoundsException("fromIndex: " + fromIndex + ", toIndex: " + toIndex + ", Size: " + size);
+        }
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+    }
+
+    static void validateWindow(final int size, final int step) {
+        if (size < 1 || step < 1) {
+            throw new IllegalArgumentException("Window size and step must be > 0");
+        }
     }
 
-    private static void validatePartitionSize(int partitionSize, final int minimumSize) {
+    static void validatePartitionSize(final int partitionSize, final int minimumSize) {
         if (partitionSize < minimumSize) {
             throw new IllegalArgumentException("Partition size must be > " + minimumSize);
         }
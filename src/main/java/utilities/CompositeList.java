@@ -0,0 +1,182 @@
+package utilities;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A read-only list view of several collections one after another. Creating it only records where each collection
+ * starts, so it costs O(k) for k collections, and {@code get} finds the right collection with a binary search over those
+ * offsets. Iterating walks each collection's own iterator in turn, so it is O(n) whatever kind of collections they are.
+ * The collections must not change size while the view is in use: {@code get} and iterating throw
+ * {@link ConcurrentModificationException} on reaching a collection that has, but streaming a view whose collections
+ * changed size gives undefined results
+ */
+final class CompositeList<T> extends AbstractList<T> {
+
+    final private List<Collection<T>> shards;
+    final private int[] offsets;
+
+    CompositeList(final List<? extends Collection<T>> shards) {
+        this.shards = new ArrayList<>(shards);
+        this.offsets = new int[shards.size() + 1];
+        for (int i = 0; i < shards.size(); i++) {
+            offsets[i + 1] = offsets[i] + this.shards.get(i).size();
+        }
+    }
+
+    @Override
+    public T get(final int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        final int shard = shardOf(index);
+        return Collections.elementAt(checkedShard(shard), index - offsets[shard]);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int shard = 0;
+            private Iterator<T> current = java.util.Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && shard < shards.size()) {
+                    current = checkedShard(shard++).iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+
+    @Override
+    public void forEach(final Consumer<? super T> action) {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            checkedShard(shard).forEach(action);
+        }
+    }
+
+    @Override
+    public int size() {
+        return offsets[shards.size()];
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return new ShardSpliterator(0, shards.size());
+    }
+
+    private Collection<T> checkedShard(final int shard) {
+        final Collection<T> ts = shards.get(shard);
+        if (ts.size() != offsets[shard + 1] - offsets[shard]) {
+            throw new ConcurrentModificationException("Collection " + shard + " changed size");
+        }
+        return ts;
+    }
+
+    private int shardOf(final int index) {
+        final int found = Arrays.binarySearch(offsets, 0, shards.size(), index);
+        // empty shards share their offset with the next shard, so skip past them
+        int shard = found >= 0 ? found : -found - 2;
+        while (offsets[shard + 1] == index) {
+            shard++;
+        }
+        return shard;
+    }
+
+    /**
+     * Splits on whole shards while it covers more than one, then defers to the last shard's own spliterator
+     */
+    private final class ShardSpliterator implements Spliterator<T> {
+
+        private int shard;
+        final private int fence;
+        private Spliterator<T> current;
+
+        private ShardSpliterator(final int shard, final int fence) {
+            this.shard = shard;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super T> action) {
+            while (shard < fence) {
+                if (current == null) {
+                    current = shards.get(shard).spliterator();
+                }
+                if (current.tryAdvance(action)) {
+                    return true;
+                }
+                current = null;
+                shard++;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super T> action) {
+            while (shard < fence) {
+                if (current == null) {
+                    current = shards.get(shard).spliterator();
+                }
+                current.forEachRemaining(action);
+                current = null;
+                shard++;
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            if (current != null && fence - shard > 1) {
+                // hand over what's left of the shard in progress and keep the whole shards after it
+                final Spliterator<T> prefix = current;
+                current = null;
+                shard++;
+                return prefix;
+            }
+            if (fence - shard > 1) {
+                final int mid = (shard + fence) >>> 1;
+                final Spliterator<T> prefix = new ShardSpliterator(shard, mid);
+                shard = mid;
+                return prefix;
+            }
+            if (fence - shard == 1) {
+                if (current == null) {
+                    current = shards.get(shard).spliterator();
+                }
+                return current.trySplit();
+            }
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            if (shard >= fence) {
+                return 0;
+            }
+            final long whole = offsets[fence] - offsets[current == null ? shard : shard + 1];
+            return current == null ? whole : whole + current.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED;
+        }
+    }
+}
@@ -1,14 +1,136 @@
 package utilities;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.stream.IntStream;
 
 public class Consumers {
 
     public static void repeat(final int times, final Consumer<Integer> consumer) {
-        if (times > 0) {
+        Instrumentation.measure("Consumers.repeat", () -> Math.max(times, 0), () -> {
             for (int i = 0; i < times; i++) {
                 consumer.accept(i);
             }
+        }, () -> Math.max(times, 0));
+    }
+
+    /**
+     * Like {@code repeat}, but the index is passed unboxed
+     */
+    public static void repeatInt(final int times, final IntConsumer consumer) {
+        Instrumentation.measure("Consumers.repeatInt", () -> Math.max(times, 0), () -> {
+            for (int i = 0; i < times; i++) {
+                consumer.accept(i);
+            }
+        }, () -> Math.max(times, 0));
+    }
+
+    public static void repeatLong(final long times, final LongConsumer consumer) {
+        Instrumentation.measure("Consumers.repeatLong", () -> Math.max(times, 0), () -> {
+            for (long i = 0; i < times; i++) {
+                consumer.accept(i);
+            }
+        }, () -> Math.max(times, 0));
+    }
+
+    /**
+     * Split the indices {@code 0} to {@code times} into consecutive ranges of {@code chunkSize} (the last may be
+     * smaller) and pass each range to {@code consumer}, so the loop over each range runs inside the consumer
+     */
+    public static void repeatChunked(final int times, final int chunkSize, final IntRangeConsumer consumer) {
+        final int chunks = chunkCount(times, chunkSize);
+        Instrumentation.measure("Consumers.repeatChunked", () -> Math.max(times, 0), () -> {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                acceptChunk(chunk, chunkSize, times, consumer);
+            }
+        }, () -> chunks);
+    }
+
+    /**
+     * Like {@code repeatInt}, but the indices are spread across the common fork-join pool (or the pool this is called
+     * from), so {@code consumer} must be thread-safe and the indices arrive in no particular order
+     */
+    public static void repeatParallel(final int times, final IntConsumer consumer) {
+        Instrumentation.measure("Consumers.repeatParallel", () -> Math.max(times, 0),
+                () -> IntStream.range(0, Math.max(times, 0)).parallel().forEach(consumer), () -> Math.max(times, 0));
+    }
+
+    /**
+     * Like {@code repeatChunked}, but the ranges are spread across the common fork-join pool (or the pool this is
+     * called from)
+     */
+    public static void repeatParallel(final int times, final int chunkSize, final IntRangeConsumer consumer) {
+        final int chunks = chunkCount(times, chunkSize);
+        Instrumentation.measure("Consumers.repeatParallel", () -> Math.max(times, 0),
+                () -> IntStream.range(0, chunks).parallel().forEach(chunk -> acceptChunk(chunk, chunkSize, times, consumer)), () -> chunks);
+    }
+
+    /**
+     * Like {@code repeatInt}, but up to {@code concurrency} calls to {@code consumer} run at once, for consumers that
+     * wait on I/O. Returns once every call has finished. If a call fails the rest are cancelled and a
+     * {@link java.util.concurrent.CompletionException} caused by the failure is thrown, once the cancelled calls have
+     * returned or a second has passed
+     */
+    public static void repeatConcurrent(final int times, final int concurrency, final IntConsumer consumer) {
+        repeatConcurrent(times, concurrency, null, consumer);
+    }
+
+    /**
+     * Like {@code repeatConcurrent}, but if the calls have not all finished within {@code timeout} they are cancelled
+     * and a {@link java.util.concurrent.CompletionException} caused by a
+     * {@link java.util.concurrent.TimeoutException} is thrown, at most a tenth of {@code timeout} later
+     */
+    public static void repeatConcurrent(final int times, final int concurrency, final Duration timeout, final IntConsumer consumer) {
+        Instrumentation.measure("Consumers.repeatConcurrent", () -> Math.max(times, 0),
+                () -> FanOut.run(times, concurrency, timeout, consumer), () -> Math.max(times, 0));
+    }
+
+    /**
+     * Pass each element of {@code ts} to {@code consumer}, running up to {@code concurrency} calls at once as
+     * {@code repeatConcurrent} does
+     */
+    public static <T> void forEachConcurrent(final Collection<T> ts, final int concurrency, final Consumer<T> consumer) {
+        forEachConcurrent(ts, concurrency, null, consumer);
+    }
+
+    public static <T> void forEachConcurrent(final Collection<T> ts, final int concurrency, final Duration timeout, final Consumer<T> consumer) {
+        Instrumentation.measure("Consumers.forEachConcurrent", ts::size, () -> {
+            final List<T> list = ts instanceof List && ts instanceof RandomAccess ? (List<T>) ts : new ArrayList<>(ts);
+            FanOut.run(list.size(), concurrency, timeout, i -> consumer.accept(list.get(i)));
+        }, ts::size);
+    }
+
+    /**
+     * Collect elements into batches of up to {@code maxSize} for {@code downstream}, flushing a batch when it is full,
+     * when its oldest element has waited {@code maxDelay}, or on close. Up to {@code 4 * maxSize} elements may be
+     * waiting before callers block; see {@link BatchingConsumer}
+     */
+    public static <T> BatchingConsumer<T> batching(final int maxSize, final Duration maxDelay, final Consumer<List<T>> downstream) {
+        return batching(maxSize, maxDelay, maxSize * 4, downstream);
+    }
+
+    /**
+     * Like {@code batching}, but callers block once {@code capacity} elements are waiting or being consumed
+     */
+    public static <T> BatchingConsumer<T> batching(final int maxSize, final Duration maxDelay, final int capacity, final Consumer<List<T>> downstream) {
+        return new BatchingConsumer<>(maxSize, maxDelay.toNanos(), capacity, downstream);
+    }
+
+    private static int chunkCount(final int times, final int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be > 1");
         }
+        return times <= 0 ? 0 : (times - 1) / chunkSize + 1;
+    }
+
+    private static void acceptChunk(final int chunk, final int chunkSize, final int times, final IntRangeConsumer consumer) {
+        final int from = chunk * chunkSize;
+        consumer.accept(from, (int) Math.min((long) from + chunkSize, times));
     }
 }
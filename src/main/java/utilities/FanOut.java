@@ -0,0 +1,137 @@
+package utilities;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Runs a task for each index on up to {@code concurrency} threads at once, for tasks that mostly wait (on I/O, say)
+ * rather than compute. Each thread takes the next index as it finishes the last, so a slow call only holds up its own
+ * thread. The threads come from a shared pool that grows to the highest concurrency asked for and lets idle threads
+ * go after a minute
+ */
+final class FanOut {
+
+    // how long a failed run without a timeout waits for its interrupted calls to return before throwing
+    static final long CANCEL_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final ExecutorService THREADS = Executors.newCachedThreadPool(runnable -> {
+        final Thread thread = new Thread(runnable, "fan-out");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Call {@code task} for every index from {@code 0} to {@code times}, returning once all calls have finished. On
+     * the first failure, or if {@code timeout} (which may be {@code null}) passes first, the calls still running are
+     * interrupted, no more are started and a {@link CompletionException} is thrown, caused by the failure or by a
+     * {@link TimeoutException}. Before throwing it waits a while for the interrupted calls to return, so in the usual
+     * case nothing runs after it throws; a call that ignores interrupts for longer than that may still be running, and
+     * writing its result, afterwards. Without a timeout it waits up to {@link #CANCEL_GRACE_NANOS}; with one, the wait
+     * is cut so that it returns within a tenth of {@code timeout} (and at most that grace period) of it passing
+     */
+    static void run(final int times, final int concurrency, final Duration timeout, final IntConsumer task) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be > 0");
+        }
+        if (times <= 0) {
+            return;
+        }
+
+        final long deadline = timeout == null ? 0 : System.nanoTime() + timeout.toNanos();
+        final int workers = Math.min(concurrency, times);
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicInteger running = new AtomicInteger(workers);
+        // workers that have started and not yet returned, whose calls may still be writing results
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        // released when every worker is done, or as soon as one fails
+        final CountDownLatch finished = new CountDownLatch(1);
+
+        final List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            futures.add(THREADS.submit(() -> {
+                active.incrementAndGet();
+                try {
+                    int index;
+                    while (failure.get() == null && (index = next.getAndIncrement()) < times) {
+                        task.accept(index);
+                    }
+                } catch (final Throwable t) {
+                    failure.compareAndSet(null, t);
+                    finished.countDown();
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        finished.countDown();
+                    }
+                    if (active.decrementAndGet() == 0) {
+                        synchronized (active) {
+                            active.notifyAll();
+                        }
+                    }
+                }
+            }));
+        }
+
+        boolean interrupted = false;
+        try {
+            final boolean completed = timeout == null ? await(finished) : finished.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            if (!completed) {
+                failure.compareAndSet(null, new TimeoutException("Timed out after " + timeout));
+            }
+        } catch (final InterruptedException e) {
+            failure.compareAndSet(null, e);
+            interrupted = true;
+        }
+
+        final Throwable first = failure.get();
+        if (first != null) {
+            futures.forEach(future -> future.cancel(true));
+            // a worker that starts after this sees the failure and returns without calling the task
+            final long grace = timeout == null ? CANCEL_GRACE_NANOS
+                    : deadline + Math.min(CANCEL_GRACE_NANOS, timeout.toNanos() / 10) - System.nanoTime();
+            interrupted |= awaitIdle(active, grace);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (first != null) {
+            throw new CompletionException(first);
+        }
+    }
+
+    /**
+     * Wait up to {@code nanos} for {@code active} to reach 0, returning whether this thread was interrupted meanwhile
+     */
+    private static boolean awaitIdle(final AtomicInteger active, final long nanos) {
+        boolean interrupted = false;
+        final long deadline = System.nanoTime() + nanos;
+        synchronized (active) {
+            long remaining = nanos;
+            while (active.get() > 0 && remaining > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(active, remaining);
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        return interrupted;
+    }
+
+    private static boolean await(final CountDownLatch latch) throws InterruptedException {
+        latch.await();
+        return true;
+    }
+}
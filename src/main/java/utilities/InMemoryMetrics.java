@@ -0,0 +1,106 @@
+package utilities;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link Metrics} kept in memory: counters are {@link LongAdder}s and histograms track count, sum, min, max and
+ * power-of-two buckets for approximate percentiles
+ */
+public class InMemoryMetrics implements Metrics {
+
+    final private Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    final private Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(final String counter) {
+        counters.computeIfAbsent(counter, name -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void record(final String histogram, final long value) {
+        histograms.computeIfAbsent(histogram, name -> new Histogram()).record(value);
+    }
+
+    public long count(final String counter) {
+        final LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * The histogram with this name, or an empty one if nothing has been recorded to it
+     */
+    public Histogram histogram(final String histogram) {
+        return histograms.getOrDefault(histogram, new Histogram());
+    }
+
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    public static final class Histogram {
+
+        final private LongAdder count = new LongAdder();
+        final private LongAdder sum = new LongAdder();
+        final private LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        final private LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        // bucket b > 0 holds values from 2^(b - 1) up to 2^b - 1, and bucket 0 holds values <= 0
+        final private AtomicLongArray buckets = new AtomicLongArray(Long.SIZE);
+
+        private void record(final long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+            buckets.incrementAndGet(value <= 0 ? 0 : Long.SIZE - Long.numberOfLeadingZeros(value));
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long sum() {
+            return sum.sum();
+        }
+
+        public long min() {
+            return count() == 0 ? 0 : min.get();
+        }
+
+        public long max() {
+            return count() == 0 ? 0 : max.get();
+        }
+
+        public double mean() {
+            final long count = count();
+            return count == 0 ? 0 : (double) sum() / count;
+        }
+
+        /**
+         * An upper bound on the value below which {@code quantile} (between 0 and 1) of the recorded values fall,
+         * accurate to within a factor of two
+         */
+        public long percentile(final double quantile) {
+            if (quantile < 0 || quantile > 1) {
+                throw new IllegalArgumentException("Quantile must be between 0 and 1");
+            }
+            final long count = count();
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(quantile * count));
+            long seen = 0;
+            for (int bucket = 0; bucket < buckets.length(); bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= rank) {
+                    return bucket == 0 ? Math.min(max(), 0) : Math.min(max(), (1L << bucket) - 1);
+                }
+            }
+            return max();
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package utilities;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Opt-in measurement of the eager operations in {@link Collections} and {@link Consumers}. Once enabled, every call
+ * sends these to the {@link Metrics}, where {@code op} is e.g. {@code Collections.slice}:
+ * <ul>
+ *     <li>{@code op.calls} and, for calls slower than the threshold, {@code op.slow} counters</li>
+ *     <li>{@code op.inputSize}, {@code op.outputSize} and {@code op.nanos} histograms</li>
+ *     <li>an {@code op.allocatedBytes} histogram, where the JVM can measure per-thread allocation</li>
+ * </ul>
+ * Comparing nanos to input size is how to spot a call that is quadratic in practice. While disabled, each operation
+ * pays only a volatile read and a null check. Lazy views and streams (the {@code partition} family, {@code windowed},
+ * {@code flattenView}, the collectors and everything in {@link Streams}) are not measured, as their cost is paid later
+ * by whatever consumes them. Operations call each other through uninstrumented helpers, so each call is recorded once,
+ * under the name of the method that was called
+ */
+public class Instrumentation {
+
+    private static volatile Settings settings;
+
+    private static final Map<String, Names> NAMES = new ConcurrentHashMap<>();
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public static void enable(final Metrics metrics) {
+        enable(metrics, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enable instrumentation, counting calls that take at least {@code slowThreshold} as slow
+     */
+    public static void enable(final Metrics metrics, final long slowThreshold, final TimeUnit unit) {
+        settings = new Settings(metrics, unit.toNanos(slowThreshold), allocationMeasurable());
+    }
+
+    public static void disable() {
+        settings = null;
+    }
+
+    public static boolean isEnabled() {
+        return settings != null;
+    }
+
+    /**
+     * Run {@code call}, measuring it as {@code operation} if instrumentation is enabled. The sizes are only computed,
+     * after the call returns, while it is, as they can cost O(n) for a concurrent collection. A call that throws is not
+     * recorded
+     */
+    static <R> R measure(final String operation, final LongSupplier inputSize, final Supplier<R> call, final ToLongFunction<? super R> outputSize) {
+        final Probe probe = start();
+        final R result = call.get();
+        if (probe != null) {
+            stop(probe, operation, inputSize.getAsLong(), outputSize.applyAsLong(result));
+        }
+        return result;
+    }
+
+    /**
+     * Like {@code measure}, for a call with no result
+     */
+    static void measure(final String operation, final LongSupplier inputSize, final Runnable call, final LongSupplier outputSize) {
+        final Probe probe = start();
+        call.run();
+        if (probe != null) {
+            stop(probe, operation, inputSize.getAsLong(), outputSize.getAsLong());
+        }
+    }
+
+    /**
+     * Start measuring a call, returning {@code null} if instrumentation is disabled
+     */
+    static Probe start() {
+        final Settings current = settings;
+        return current == null ? null : new Probe(current);
+    }
+
+    /**
+     * Finish measuring a call started with {@link #start()}. Does nothing if {@code probe} is {@code null}
+     */
+    static void stop(final Probe probe, final String operation, final long inputSize, final long outputSize) {
+        if (probe == null) {
+            return;
+        }
+        final long nanos = System.nanoTime() - probe.startNanos;
+        final long allocatedBytes = probe.settings.measureAllocation ? allocatedBytes() - probe.startBytes : -1;
+
+        final Names names = NAMES.computeIfAbsent(operation, Names::new);
+        final Metrics metrics = probe.settings.metrics;
+        metrics.increment(names.calls);
+        if (nanos >= probe.settings.slowNanos) {
+            metrics.increment(names.slow);
+        }
+        metrics.record(names.inputSize, inputSize);
+        metrics.record(names.outputSize, outputSize);
+        metrics.record(names.nanos, nanos);
+        if (allocatedBytes >= 0) {
+            metrics.record(names.allocatedBytes, allocatedBytes);
+        }
+    }
+
+    /**
+     * Whether this JVM can measure the bytes each thread allocates, which {@code op.allocatedBytes} needs
+     */
+    public static boolean allocationMeasurable() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+            return false;
+        }
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static final class Probe {
+
+        final private Settings settings;
+        final private long startBytes;
+        final private long startNanos;
+
+        private Probe(final Settings settings) {
+            this.settings = settings;
+            this.startBytes = settings.measureAllocation ? allocatedBytes() : 0;
+            this.startNanos = System.nanoTime();
+        }
+    }
+
+    private static final class Settings {
+
+        final private Metrics metrics;
+        final private long slowNanos;
+        final private boolean measureAllocation;
+
+        private Settings(final Metrics metrics, final long slowNanos, final boolean measureAllocation) {
+            this.metrics = metrics;
+            this.slowNanos = slowNanos;
+            this.measureAllocation = measureAllocation;
+        }
+    }
+
+    private static final class Names {
+
+        final private String calls;
+        final private String slow;
+        final private String inputSize;
+        final private String outputSize;
+        final private String nanos;
+        final private String allocatedBytes;
+
+        private Names(final String operation) {
+            this.calls = operation + ".calls";
+            this.slow = operation + ".slow";
+            this.inputSize = operation + ".inputSize";
+            this.outputSize = operation + ".outputSize";
+            this.nanos = operation + ".nanos";
+            this.allocatedBytes = operation + ".allocatedBytes";
+        }
+    }
+}
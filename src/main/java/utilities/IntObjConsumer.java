@@ -0,0 +1,10 @@
+package utilities;
+
+/**
+ * A {@link java.util.function.Consumer} of an unboxed int index and the element at that index
+ */
+@FunctionalInterface
+public interface IntObjConsumer<T> {
+
+    void accept(int index, T t);
+}
@@ -0,0 +1,10 @@
+package utilities;
+
+/**
+ * A consumer of a range of int indices, from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive)
+ */
+@FunctionalInterface
+public interface IntRangeConsumer {
+
+    void accept(int fromIndex, int toIndex);
+}
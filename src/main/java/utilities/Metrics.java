@@ -0,0 +1,13 @@
+package utilities;
+
+/**
+ * Where {@link Instrumentation} sends its measurements. Counters are incremented by one per event and histograms
+ * record one value per event; implementations must be thread-safe. {@link InMemoryMetrics} is the default, and
+ * anything else (a metrics registry, a log, a profiler bridge) can be plugged in by implementing this interface
+ */
+public interface Metrics {
+
+    void increment(String counter);
+
+    void record(String histogram, long value);
+}
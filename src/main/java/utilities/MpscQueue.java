@@ -0,0 +1,55 @@
+package utilities;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * An unbounded lock-free queue for many producers and a single consumer. Producers swap themselves in as the tail
+ * with one atomic exchange and then link the old tail to their node, so {@code offer} never retries; only the
+ * consumer thread may call {@code poll}
+ */
+final class MpscQueue<T> {
+
+    final private AtomicReference<Node<T>> tail;
+    private Node<T> head;
+
+    MpscQueue() {
+        final Node<T> stub = new Node<>(null);
+        this.head = stub;
+        this.tail = new AtomicReference<>(stub);
+    }
+
+    void offer(final T t) {
+        final Node<T> node = new Node<>(t);
+        final Node<T> previous = tail.getAndSet(node);
+        previous.next = node;
+    }
+
+    /**
+     * Take the oldest element, or {@code null} if there is none. An element whose producer has swapped in the tail but
+     * not linked it yet counts as not there yet
+     */
+    T poll() {
+        final Node<T> next = head.next;
+        if (next == null) {
+            return null;
+        }
+        final T t = next.value;
+        next.value = null;
+        head = next;
+        return t;
+    }
+
+    boolean isEmpty() {
+        return head.next == null && head == tail.get();
+    }
+
+    private static final class Node<T> {
+
+        private T value;
+        private volatile Node<T> next;
+
+        private Node(final T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package utilities;
+
+import types.MappedRecords;
+import types.PersistentVector;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A lazy, read-only list of partitions of a backing list. Partition {@code i} is a read-only view of the
+ * {@link List#subList} from {@code from(i)} to {@code to(i)}, so nothing is copied and each partition only costs the
+ * view objects. Elements set in the backing list show through, but it must not change size while the partitions are in
+ * use: reading a partition then throws {@link ConcurrentModificationException}
+ */
+final class PartitionedList<T> extends AbstractList<Collection<T>> implements RandomAccess {
+
+    final private List<T> ts;
+    final private int expectedSize;
+    // already read-only lists, whose sublists are their own type and need no wrapping
+    final private boolean readOnly;
+    final private int size;
+    final private IntUnaryOperator from;
+    final private IntUnaryOperator to;
+
+    PartitionedList(final List<T> ts, final int size, final IntUnaryOperator from, final IntUnaryOperator to) {
+        this.ts = ts;
+        this.expectedSize = ts.size();
+        this.readOnly = ts instanceof MappedRecords || ts instanceof PersistentVector;
+        this.size = size;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public Collection<T> get(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+        if (ts.size() != expectedSize) {
+            throw new ConcurrentModificationException("Partitioned list changed size from " + expectedSize + " to " + ts.size());
+        }
+        final List<T> partition = ts.subList(from.applyAsInt(index), to.applyAsInt(index));
+        return readOnly ? partition : java.util.Collections.unmodifiableList(partition);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Spliterator<Collection<T>> spliterator() {
+        return new PartitionSpliterator(0, size);
+    }
+
+    /**
+     * Splits on whole partitions, so each half of a split is itself a run of complete partitions
+     */
+    private final class PartitionSpliterator implements Spliterator<Collection<T>> {
+
+        private int index;
+        final private int fence;
+
+        private PartitionSpliterator(final int index, final int fence) {
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(final Consumer<? super Collection<T>> action) {
+            if (index < fence) {
+                action.accept(get(index++));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(final Consumer<? super Collection<T>> action) {
+            while (index < fence) {
+                action.accept(get(index++));
+            }
+        }
+
+        @Override
+        public Spliterator<Collection<T>> trySplit() {
+            final int mid = (index + fence) >>> 1;
+            if (mid <= index) {
+                return null;
+            }
+            final Spliterator<Collection<T>> prefix = new PartitionSpliterator(index, mid);
+            index = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL;
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package utilities;
 
+import types.Cache;
+
 import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 public class Predicates {
@@ -18,7 +23,63 @@ public class Predicates {
     }
 
     public static <T> Predicate<T> xor(final Predicate<T> one, final Predicate<T> two) {
-        return and(or(one, two), not(and(one, two)));
+        return t -> one.test(t) ^ two.test(t);
+    }
+
+    /**
+     * Combine predicates into one that tests them in order in a single loop, stopping at the first that fails. Unlike
+     * chained {@code and} calls this doesn't nest a lambda per predicate
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Predicate<T> allOf(final Predicate<T>... predicates) {
+        final Predicate<T>[] flat = predicates.clone();
+        return t -> {
+            for (final Predicate<T> predicate : flat) {
+                if (!predicate.test(t)) {
+                    return false;
+                }
+            }
+            return true;
+        };
+    }
+
+    /**
+     * Combine predicates into one that tests them in order in a single loop, stopping at the first that passes
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Predicate<T> anyOf(final Predicate<T>... predicates) {
+        final Predicate<T>[] flat = predicates.clone();
+        return t -> {
+            for (final Predicate<T> predicate : flat) {
+                if (predicate.test(t)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public static <T> Predicate<T> noneOf(final Predicate<T>... predicates) {
+        return not(anyOf(predicates));
+    }
+
+    /**
+     * Cache the results of an expensive predicate, keeping at most {@code maxSize} of them
+     */
+    public static <T> Predicate<T> memoize(final Predicate<T> predicate, final int maxSize) {
+        return memoize(predicate, new Cache<>(maxSize));
+    }
+
+    /**
+     * Cache the results of an expensive predicate in {@code cache}, e.g. to set an expiry or read its hit and miss counts
+     */
+    public static <T> Predicate<T> memoize(final Predicate<T> predicate, final Cache<T, Boolean> cache) {
+        final Function<T, Boolean> load = predicate::test;
+        return t -> cache.get(t, load);
     }
 
     public static Predicate<Integer> even() {
@@ -26,7 +87,31 @@ public class Predicates {
     }
 
     public static Predicate<Integer> odd() {
-        return not(even());
+        return i -> i % 2 != 0;
+    }
+
+    public static IntPredicate intEven() {
+        return i -> (i & 1) == 0;
+    }
+
+    public static IntPredicate intOdd() {
+        return i -> (i & 1) != 0;
+    }
+
+    public static LongPredicate longEven() {
+        return l -> (l & 1) == 0;
+    }
+
+    public static LongPredicate longOdd() {
+        return l -> (l & 1) != 0;
+    }
+
+    public static IntPredicate intXor(final IntPredicate one, final IntPredicate two) {
+        return i -> one.test(i) ^ two.test(i);
+    }
+
+    public static LongPredicate longXor(final LongPredicate one, final LongPredicate two) {
+        return l -> one.test(l) ^ two.test(l);
     }
 
     public static Predicate<Collection<?>> empty() {
@@ -0,0 +1,217 @@
+package utilities;
+
+import types.IntObjTuple;
+import types.Pair;
+import types.Tuple;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.BaseStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy, streaming versions of the {@link Collections} transformers. Each method pulls from its input only as far as
+ * the returned stream is consumed and holds at most one partition of elements at a time, so they work over unbounded
+ * or larger-than-memory inputs. Closing a returned stream closes its input(s)
+ */
+public class StreamOps {
+
+    public static <T> Stream<Pair<T>> toPairs(final Stream<T> ts) {
+        final Iterator<T> iterator = ts.iterator();
+        return stream(new Iterator<Pair<T>>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Pair<T> next() {
+                final T one = iterator.next();
+                if (!iterator.hasNext()) {
+                    throw new IllegalArgumentException("Odd number of elements");
+                }
+                return new Pair<>(one, iterator.next());
+            }
+        }, ts);
+    }
+
+    public static <T> Stream<Pair<T>> toOverlappingPairs(final Stream<T> ts) {
+        final Iterator<T> iterator = ts.iterator();
+        return stream(new Iterator<Pair<T>>() {
+            private T previous;
+            private boolean started;
+
+            @Override
+            public boolean hasNext() {
+                if (!started && iterator.hasNext()) {
+                    previous = iterator.next();
+                    started = true;
+                }
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Pair<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final T current = iterator.next();
+                final Pair<T> pair = new Pair<>(previous, current);
+                previous = current;
+                return pair;
+            }
+        }, ts);
+    }
+
+    public static <T> Stream<Tuple<Integer, T>> indexed(final Stream<T> ts) {
+        return indexedFrom(ts, 0);
+    }
+
+    public static <T> Stream<Tuple<Integer, T>> indexedFrom(final Stream<T> ts, final int startIndex) {
+        final Iterator<T> iterator = ts.iterator();
+        return stream(new Iterator<Tuple<Integer, T>>() {
+            private int index = startIndex;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public Tuple<Integer, T> next() {
+                return new Tuple<>(index++, iterator.next());
+            }
+        }, ts);
+    }
+
+    public static <T> Stream<IntObjTuple<T>> intIndexed(final Stream<T> ts) {
+        return intIndexedFrom(ts, 0);
+    }
+
+    public static <T> Stream<IntObjTuple<T>> intIndexedFrom(final Stream<T> ts, final int startIndex) {
+        final Iterator<T> iterator = ts.iterator();
+        return stream(new Iterator<IntObjTuple<T>>() {
+            private int index = startIndex;
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public IntObjTuple<T> next() {
+                return new IntObjTuple<>(index++, iterator.next());
+            }
+        }, ts);
+    }
+
+    /**
+     * Zip two streams. If one stream runs out before the other an {@link IllegalArgumentException} is thrown at that point
+     */
+    public static <A, B> Stream<Tuple<A, B>> zip(final Stream<A> as, final Stream<B> bs) {
+        final Iterator<A> aIterator = as.iterator();
+        final Iterator<B> bIterator = bs.iterator();
+        return stream(new Iterator<Tuple<A, B>>() {
+            @Override
+            public boolean hasNext() {
+                if (aIterator.hasNext() != bIterator.hasNext()) {
+                    throw new IllegalArgumentException("Cannot zip two streams of different sizes");
+                }
+                return aIterator.hasNext();
+            }
+
+            @Override
+            public Tuple<A, B> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return new Tuple<>(aIterator.next(), bIterator.next());
+            }
+        }, as, bs);
+    }
+
+    public static <T> Stream<List<T>> partition(final Stream<T> ts, final int partitionSize) {
+        Collections.validatePartitionSize(partitionSize, 1);
+        return windowed(ts, partitionSize, partitionSize, true);
+    }
+
+    public static <T> Stream<List<T>> discardingPartition(final Stream<T> ts, final int partitionSize) {
+        Collections.validatePartitionSize(partitionSize, 1);
+        return windowed(ts, partitionSize, partitionSize, false);
+    }
+
+    /**
+     * Partition a stream similarly to {@code partition}, but each partition starts with the last element of the previous one
+     */
+    public static <T> Stream<List<T>> partitionOverlapping(final Stream<T> ts, final int partitionSize) {
+        Collections.validatePartitionSize(partitionSize, 2);
+        return windowed(ts, partitionSize, partitionSize - 1, true);
+    }
+
+    /**
+     * Slide a window of {@code size} elements over a stream, moving it along {@code step} elements at a time. Only
+     * full windows are returned, and when {@code step} is bigger than {@code size} the elements between windows are skipped
+     */
+    public static <T> Stream<List<T>> windowed(final Stream<T> ts, final int size, final int step) {
+        Collections.validateWindow(size, step);
+        return windowed(ts, size, step, false);
+    }
+
+    private static <T> Stream<List<T>> windowed(final Stream<T> ts, final int size, final int step, final boolean keepPartial) {
+        final Iterator<T> iterator = ts.iterator();
+        return stream(new Iterator<List<T>>() {
+            private List<T> next;
+            private List<T> carried = new ArrayList<>();
+            private int skip;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = advance();
+                }
+                return next != null;
+            }
+
+            @Override
+            public List<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final List<T> window = next;
+                next = null;
+                return window;
+            }
+
+            private List<T> advance() {
+                while (skip > 0 && iterator.hasNext()) {
+                    iterator.next();
+                    skip--;
+                }
+                final List<T> window = carried;
+                final int carriedSize = window.size();
+                while (window.size() < size && iterator.hasNext()) {
+                    window.add(iterator.next());
+                }
+                if (window.size() == carriedSize || (window.size() < size && !keepPartial)) {
+                    return null;
+                }
+                carried = new ArrayList<>(window.subList(Math.min(step, window.size()), window.size()));
+                skip = step - Math.min(step, window.size());
+                return window;
+            }
+        }, ts);
+    }
+
+    private static <R> Stream<R> stream(final Iterator<R> iterator, final BaseStream<?, ?>... sources) {
+        final Stream<R> stream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        for (final BaseStream<?, ?> source : sources) {
+            stream.onClose(source::close);
+        }
+        return stream;
+    }
+}
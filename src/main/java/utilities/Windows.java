@@ -0,0 +1,282 @@
+package utilities;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Rolling aggregates over sliding windows of primitive streams. A window of {@code size} values moves along one value at
+ * a time and its aggregate is emitted for every {@code step}th full window (so a step of 1 gives every window). Each
+ * aggregate is updated incrementally as values enter and leave the window rather than recomputed: sums subtract the
+ * value leaving, and mins and maxes keep a monotonic deque of candidates, so each value costs O(1) amortised whatever
+ * the window size. For collections, stream them first, e.g. {@code ts.stream().mapToInt(Integer::intValue)}
+ */
+public class Windows {
+
+    public static LongStream rollingSum(final IntStream values, final int size, final int step) {
+        return rollingSum(values.asLongStream(), size, step);
+    }
+
+    public static LongStream rollingSum(final LongStream values, final int size, final int step) {
+        return slide(values, size, step, new LongSum());
+    }
+
+    public static DoubleStream rollingSum(final DoubleStream values, final int size, final int step) {
+        return slide(values, size, step, new DoubleSum());
+    }
+
+    public static DoubleStream rollingAverage(final IntStream values, final int size, final int step) {
+        return rollingAverage(values.asLongStream(), size, step);
+    }
+
+    public static DoubleStream rollingAverage(final LongStream values, final int size, final int step) {
+        return rollingSum(values, size, step).mapToDouble(sum -> (double) sum / size);
+    }
+
+    public static DoubleStream rollingAverage(final DoubleStream values, final int size, final int step) {
+        return rollingSum(values, size, step).map(sum -> sum / size);
+    }
+
+    public static IntStream rollingMin(final IntStream values, final int size, final int step) {
+        return rollingMin(values.asLongStream(), size, step).mapToInt(min -> (int) min);
+    }
+
+    public static LongStream rollingMin(final LongStream values, final int size, final int step) {
+        return slide(values, size, step, new LongExtreme(size, true));
+    }
+
+    public static DoubleStream rollingMin(final DoubleStream values, final int size, final int step) {
+        return slide(values, size, step, new DoubleExtreme(size, true));
+    }
+
+    public static IntStream rollingMax(final IntStream values, final int size, final int step) {
+        return rollingMax(values.asLongStream(), size, step).mapToInt(max -> (int) max);
+    }
+
+    public static LongStream rollingMax(final LongStream values, final int size, final int step) {
+        return slide(values, size, step, new LongExtreme(size, false));
+    }
+
+    public static DoubleStream rollingMax(final DoubleStream values, final int size, final int step) {
+        return slide(values, size, step, new DoubleExtreme(size, false));
+    }
+
+    private static LongStream slide(final LongStream values, final int size, final int step, final LongAggregate aggregate) {
+        Collections.validateWindow(size, step);
+        final PrimitiveIterator.OfLong iterator = values.iterator();
+        final long[] window = new long[size];
+        final PrimitiveIterator.OfLong aggregates = new PrimitiveIterator.OfLong() {
+            private long count;
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && iterator.hasNext()) {
+                    final long value = iterator.nextLong();
+                    final int slot = (int) (count % size);
+                    if (count >= size) {
+                        aggregate.evict(window[slot]);
+                    }
+                    window[slot] = value;
+                    aggregate.add(value);
+                    count++;
+                    ready = count >= size && (count - size) % step == 0;
+                }
+                return ready;
+            }
+
+            @Override
+            public long nextLong() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return aggregate.result();
+            }
+        };
+        return StreamSupport.longStream(Spliterators.spliteratorUnknownSize(aggregates, Spliterator.ORDERED), false)
+                .onClose(values::close);
+    }
+
+    private static DoubleStream slide(final DoubleStream values, final int size, final int step, final DoubleAggregate aggregate) {
+        Collections.validateWindow(size, step);
+        final PrimitiveIterator.OfDouble iterator = values.iterator();
+        final double[] window = new double[size];
+        final PrimitiveIterator.OfDouble aggregates = new PrimitiveIterator.OfDouble() {
+            private long count;
+            private boolean ready;
+
+            @Override
+            public boolean hasNext() {
+                while (!ready && iterator.hasNext()) {
+                    final double value = iterator.nextDouble();
+                    final int slot = (int) (count % size);
+                    if (count >= size) {
+                        aggregate.evict(window[slot]);
+                    }
+                    window[slot] = value;
+                    aggregate.add(value);
+                    count++;
+                    ready = count >= size && (count - size) % step == 0;
+                }
+                return ready;
+            }
+
+            @Override
+            public double nextDouble() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ready = false;
+                return aggregate.result();
+            }
+        };
+        return StreamSupport.doubleStream(Spliterators.spliteratorUnknownSize(aggregates, Spliterator.ORDERED), false)
+                .onClose(values::close);
+    }
+
+    private interface LongAggregate {
+
+        void add(long value);
+
+        void evict(long value);
+
+        long result();
+    }
+
+    private interface DoubleAggregate {
+
+        void add(double value);
+
+        void evict(double value);
+
+        double result();
+    }
+
+    private static final class LongSum implements LongAggregate {
+
+        private long sum;
+
+        @Override
+        public void add(final long value) {
+            sum += value;
+        }
+
+        @Override
+        public void evict(final long value) {
+            sum -= value;
+        }
+
+        @Override
+        public long result() {
+            return sum;
+        }
+    }
+
+    private static final class DoubleSum implements DoubleAggregate {
+
+        private double sum;
+
+        @Override
+        public void add(final double value) {
+            sum += value;
+        }
+
+        @Override
+        public void evict(final double value) {
+            sum -= value;
+        }
+
+        @Override
+        public double result() {
+            return sum;
+        }
+    }
+
+    /**
+     * A monotonic deque of the window's candidate mins (or maxes), best first, held in a ring buffer. Equal values are
+     * all kept so evicting one copy leaves the others
+     */
+    private static final class LongExtreme implements LongAggregate {
+
+        final private long[] deque;
+        final private boolean min;
+        private int head;
+        private int length;
+
+        private LongExtreme(final int size, final boolean min) {
+            this.deque = new long[size];
+            this.min = min;
+        }
+
+        @Override
+        public void add(final long value) {
+            while (length > 0 && beats(value, deque[(head + length - 1) % deque.length])) {
+                length--;
+            }
+            deque[(head + length) % deque.length] = value;
+            length++;
+        }
+
+        @Override
+        public void evict(final long value) {
+            if (deque[head] == value) {
+                head = (head + 1) % deque.length;
+                length--;
+            }
+        }
+
+        @Override
+        public long result() {
+            return deque[head];
+        }
+
+        private boolean beats(final long value, final long candidate) {
+            return min ? value < candidate : value > candidate;
+        }
+    }
+
+    private static final class DoubleExtreme implements DoubleAggregate {
+
+        final private double[] deque;
+        final private boolean min;
+        private int head;
+        private int length;
+
+        private DoubleExtreme(final int size, final boolean min) {
+            this.deque = new double[size];
+            this.min = min;
+        }
+
+        @Override
+        public void add(final double value) {
+            while (length > 0 && beats(value, deque[(head + length - 1) % deque.length])) {
+                length--;
+            }
+            deque[(head + length) % deque.length] = value;
+            length++;
+        }
+
+        @Override
+        public void evict(final double value) {
+            if (Double.compare(deque[head], value) == 0) {
+                head = (head + 1) % deque.length;
+                length--;
+            }
+        }
+
+        @Override
+        public double result() {
+            return deque[head];
+        }
+
+        private boolean beats(final double value, final double candidate) {
+            return min ? value < candidate : value > candidate;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package testutils;
+
+import utilities.Instrumentation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * A performance budget for one operation, checked by measuring it at several input sizes. The operation is given as a
+ * function from an input size to a call, so building the input is not measured:
+ * <pre>{@code
+ * contract("reverse", n -> { final List<Integer> ts = ints(n); return () -> reverse(ts); })
+ *         .allocatesAtMostPerElement(16)
+ *         .scalesLinearly()
+ *         .verify();
+ * }</pre>
+ * Allocation is the bytes allocated by the calling thread during one call, as reported by {@link ThreadMXBean}, and
+ * is exact enough to catch per-element boxing or copying. Scaling is the slope of log(time) against log(n), which is
+ * about 0 for constant, 1 for linear and 2 for quadratic operations, so it catches complexity regressions without
+ * depending on how fast the machine is
+ */
+public final class PerformanceContract {
+
+    private static final int[] SIZES = { 1 << 10, 1 << 12, 1 << 14, 1 << 16 };
+    // bytes any call may allocate regardless of size, e.g. for a result object or a stream pipeline
+    private static final long FIXED_BYTES = 1024;
+    // how far the measured scaling exponent may exceed the declared one, to absorb timer and cache noise
+    private static final double EXPONENT_TOLERANCE = 0.4;
+    private static final long MIN_BATCH_NANOS = 2_000_000;
+    private static final int ROUNDS = 5;
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    // results are stored here so the JIT cannot discard the calls being measured
+    public static volatile Object sink;
+
+    final private String name;
+    final private IntFunction<Supplier<?>> call;
+    private double bytesPerElement = -1;
+    private double exponent = -1;
+
+    private PerformanceContract(final String name, final IntFunction<Supplier<?>> call) {
+        this.name = name;
+        this.call = call;
+    }
+
+    public static List<Integer> ints(final int n) {
+        return IntStream.range(0, n).boxed().collect(Collectors.toList());
+    }
+
+    public static PerformanceContract contract(final String name, final IntFunction<Supplier<?>> call) {
+        return new PerformanceContract(name, call);
+    }
+
+    /**
+     * Allow at most {@code bytes} of allocation per input element, plus a small fixed allowance per call
+     */
+    public PerformanceContract allocatesAtMostPerElement(final double bytes) {
+        this.bytesPerElement = bytes;
+        return this;
+    }
+
+    /**
+     * Allow only the fixed allowance per call, however big the input
+     */
+    public PerformanceContract allocatesConstant() {
+        return allocatesAtMostPerElement(0);
+    }
+
+    public PerformanceContract scalesConstant() {
+        return scalesAtMost(0);
+    }
+
+    public PerformanceContract scalesLinearly() {
+        return scalesAtMost(1);
+    }
+
+    public PerformanceContract scalesAtMost(final double exponent) {
+        this.exponent = exponent;
+        return this;
+    }
+
+    public void verify() {
+        if (bytesPerElement >= 0) {
+            verifyAllocation();
+        }
+        if (exponent >= 0) {
+            verifyScaling();
+        }
+    }
+
+    private void verifyAllocation() {
+        assumeTrue("Per-thread allocation is not measurable on this JVM", Instrumentation.allocationMeasurable());
+        final long overhead = minAllocatedBytes(() -> null);
+        for (final int size : SIZES) {
+            final long bytes = minAllocatedBytes(call.apply(size)) - overhead;
+            final double budget = bytesPerElement * size + FIXED_BYTES;
+            if (bytes > budget) {
+                fail(String.format("%s allocated %d bytes for n = %d, over its budget of %.0f (%.1f bytes per element)",
+                        name, bytes, size, budget, bytesPerElement));
+            }
+        }
+    }
+
+    private void verifyScaling() {
+        final double[] logSizes = new double[SIZES.length];
+        final double[] logNanos = new double[SIZES.length];
+        for (int i = 0; i < SIZES.length; i++) {
+            logSizes[i] = Math.log(SIZES[i]);
+            logNanos[i] = Math.log(Math.max(minNanosPerCall(call.apply(SIZES[i])), 1));
+        }
+        final double measured = slope(logSizes, logNanos);
+        if (measured > exponent + EXPONENT_TOLERANCE) {
+            fail(String.format("%s scales as n^%.2f, worse than its budget of n^%.2f", name, measured, exponent));
+        }
+    }
+
+    private static long minAllocatedBytes(final Supplier<?> call) {
+        warmUp(call);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+        final long thread = Thread.currentThread().getId();
+        long min = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            final long before = threads.getThreadAllocatedBytes(thread);
+            sink = call.get();
+            min = Math.min(min, threads.getThreadAllocatedBytes(thread) - before);
+        }
+        return min;
+    }
+
+    private static double minNanosPerCall(final Supplier<?> call) {
+        warmUp(call);
+        double min = Double.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            int calls = 0;
+            final long start = System.nanoTime();
+            long elapsed;
+            do {
+                sink = call.get();
+                calls++;
+                elapsed = System.nanoTime() - start;
+            } while (elapsed < MIN_BATCH_NANOS);
+            min = Math.min(min, (double) elapsed / calls);
+        }
+        return min;
+    }
+
+    private static void warmUp(final Supplier<?> call) {
+        final long start = System.nanoTime();
+        int calls = 0;
+        while (calls < 1000 && System.nanoTime() - start < 50 * MIN_BATCH_NANOS) {
+            sink = call.get();
+            calls++;
+        }
+    }
+
+    private static double slope(final double[] xs, final double[] ys) {
+        double meanX = 0;
+        double meanY = 0;
+        for (int i = 0; i < xs.length; i++) {
+            meanX += xs[i] / xs.length;
+            meanY += ys[i] / ys.length;
+        }
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < xs.length; i++) {
+            covariance += (xs[i] - meanX) * (ys[i] - meanY);
+            variance += (xs[i] - meanX) * (xs[i] - meanX);
+        }
+        return covariance / variance;
+    }
+}
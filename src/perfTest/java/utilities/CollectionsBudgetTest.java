@@ -0,0 +1,290 @@
+package utilities;
+
+import org.junit.Test;
+import types.Bitmap;
+import types.IntList;
+import types.LongList;
+import types.PersistentVector;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static testutils.PerformanceContract.contract;
+import static testutils.PerformanceContract.ints;
+import static utilities.Predicates.even;
+
+/*
+ * The parallel methods and fillConcurrent have no budgets: most of their work, and so their allocation, happens on
+ * other threads, and their timing depends on how many cores the pool has and on what else is running on it. Their
+ * speedups are measured by ParallelCollectionsBenchmark instead
+ */
+public class CollectionsBudgetTest {
+
+    @Test
+    public void testGet() {
+        contract("get", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.get(ts, n / 2);
+        }).allocatesConstant().scalesConstant().verify();
+    }
+
+    @Test
+    public void testSlice() {
+        contract("slice", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.slice(ts, 1, n - 1);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("slice of a linked list", n -> {
+            final List<Integer> ts = new LinkedList<>(ints(n));
+            return () -> Collections.slice(ts, n - 10, n);
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testHeadAndTail() {
+        contract("head", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.head(ts);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("init", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.init(ts);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("mid", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.mid(ts);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("last", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.last(ts);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("tail of a persistent vector", n -> {
+            final Collection<Integer> ts = PersistentVector.copyOf(ints(n));
+            return () -> Collections.tail(ts);
+        }).allocatesConstant().scalesConstant().verify();
+    }
+
+    @Test
+    public void testFill() {
+        contract("fill", n -> () -> Collections.fill("t", n))
+                .allocatesAtMostPerElement(16).scalesLinearly().verify();
+
+        contract("fill with a supplier", n -> () -> Collections.fill(() -> "t", n))
+                .allocatesAtMostPerElement(16).scalesLinearly().verify();
+    }
+
+    @Test
+    public void testFind() {
+        contract("find", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.find(ts, t -> t == n - 1);
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("findIndex", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.findIndex(ts, t -> t == n - 1);
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testFlatten() {
+        contract("flatten", n -> {
+            final Collection<Integer> ts = ints(n / 2);
+            return () -> Collections.flatten(ts, ts);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("flattenView", n -> {
+            final Collection<Integer> ts = ints(n / 2);
+            return () -> Collections.flattenView(ts, ts);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("iterating flattenView over deques", n -> {
+            final List<Integer> flattened = Collections.flattenView(new ArrayDeque<>(ints(n / 2)), new ArrayDeque<>(ints(n / 2)));
+            return () -> {
+                long sum = 0;
+                for (final Integer i : flattened) {
+                    sum += i;
+                }
+                return sum;
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testPairsAndIndexing() {
+        contract("toPairs", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.toPairs(ts);
+        }).allocatesAtMostPerElement(48).scalesLinearly().verify();
+
+        contract("toOverlappingPairs", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.toOverlappingPairs(ts);
+        }).allocatesAtMostPerElement(32).scalesLinearly().verify();
+
+        contract("indexed", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.indexed(ts);
+        }).allocatesAtMostPerElement(64).scalesLinearly().verify();
+
+        contract("intIndexed", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.intIndexed(ts);
+        }).allocatesAtMostPerElement(40).scalesLinearly().verify();
+
+        contract("indexed with a consumer", n -> {
+            final List<Integer> ts = ints(n);
+            final int[] sum = new int[1];
+            return () -> {
+                Collections.indexed(ts, (index, t) -> sum[0] += index);
+                return sum[0];
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testZip() {
+        contract("zip", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.zip(ts, ts);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("zipToMap", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.zipToMap(ts, ts);
+        }).allocatesAtMostPerElement(56).scalesLinearly().verify();
+
+        contract("zipToMap with a merge", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.zipToMap(ts, ts, (first, last) -> last);
+        }).allocatesAtMostPerElement(56).scalesLinearly().verify();
+
+        contract("zipToMap with int keys", n -> {
+            final IntList keys = IntList.of(IntStream.range(0, n).toArray());
+            final List<Integer> values = ints(n);
+            return () -> Collections.zipToMap(keys, values);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("zipToMap with int keys and a merge", n -> {
+            final IntList keys = IntList.of(IntStream.range(0, n).toArray());
+            final List<Integer> values = ints(n);
+            return () -> Collections.zipToMap(keys, values, (first, last) -> last);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("zipToMap with long keys and values", n -> {
+            final LongList keys = LongList.of(LongStream.range(0, n).toArray());
+            return () -> Collections.zipToMap(keys, keys);
+        }).allocatesAtMostPerElement(40).scalesLinearly().verify();
+
+        contract("zipToMap with long keys, values and a merge", n -> {
+            final LongList keys = LongList.of(LongStream.range(0, n).toArray());
+            return () -> Collections.zipToMap(keys, keys, Long::sum);
+        }).allocatesAtMostPerElement(40).scalesLinearly().verify();
+
+        contract("unzip", n -> {
+            final Collection<types.Tuple<Integer, Integer>> zipped = new ArrayList<>(Collections.zip(ints(n), ints(n)));
+            return () -> Collections.unzip(zipped);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+    }
+
+    @Test
+    public void testPartitions() {
+        contract("partition", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.partition(ts, 10);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("discardingPartition", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.discardingPartition(ts, 10);
+        }).allocatesConstant().scalesConstant().verify();
+
+        // every size measured leaves 1 over when divided by 3, so the last partitions are rearranged
+        contract("partitionNoSingletons", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.partitionNoSingletons(ts, 3);
+        }).allocatesConstant().scalesConstant().verify();
+
+        contract("windowed", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.windowed(ts, 10, 3);
+        }).allocatesConstant().scalesConstant().verify();
+    }
+
+    @Test
+    public void testSearchAndFilter() {
+        contract("reverse", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.reverse(ts);
+        }).allocatesAtMostPerElement(12).scalesLinearly().verify();
+
+        contract("indicesOf", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.indicesOf(ts, n / 2);
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("intIndicesOf", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.intIndicesOf(ts, n / 2);
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("applyPredicate", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.applyPredicate(ts, even());
+        }).allocatesAtMostPerElement(12).scalesLinearly().verify();
+
+        contract("bitmapApplyPredicate", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.bitmapApplyPredicate(ts, even());
+        }).allocatesAtMostPerElement(4).scalesLinearly().verify();
+
+        contract("applyBitmap", n -> {
+            final List<Integer> ts = ints(n);
+            final Bitmap selected = Collections.bitmapApplyPredicate(ts, even());
+            return () -> Collections.applyBitmap(ts, selected);
+        }).allocatesAtMostPerElement(8).scalesLinearly().verify();
+
+        contract("classify", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.classify(ts, even());
+        }).allocatesAtMostPerElement(16).scalesLinearly().verify();
+
+        contract("classifyAll", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> Collections.classifyAll(ts, even(), t -> t % 3 == 0);
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+    }
+
+    @Test
+    public void testCollectors() {
+        contract("classifying", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> ts.stream().collect(Collections.classifying(even()));
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("unzipping", n -> {
+            final Collection<types.Tuple<Integer, Integer>> zipped = new ArrayList<>(Collections.zip(ints(n), ints(n)));
+            return () -> zipped.stream().collect(Collections.unzipping());
+        }).allocatesAtMostPerElement(32).scalesLinearly().verify();
+
+        contract("partitioning", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> ts.stream().collect(Collections.partitioning(10));
+        }).allocatesAtMostPerElement(24).scalesLinearly().verify();
+
+        contract("indexing", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> ts.stream().collect(Collections.indexing());
+        }).allocatesAtMostPerElement(64).scalesLinearly().verify();
+    }
+}
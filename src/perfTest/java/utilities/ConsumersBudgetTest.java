@@ -0,0 +1,49 @@
+package utilities;
+
+import org.junit.Test;
+
+import static testutils.PerformanceContract.contract;
+
+/*
+ * repeatParallel, repeatConcurrent, forEachConcurrent and batching have no budgets: their consumers run on other
+ * threads, so the calling thread's allocation says little, and their timing depends on the pool, on how long the
+ * consumers wait and, for batching, on its flush delay rather than on the input size
+ */
+public class ConsumersBudgetTest {
+
+    @Test
+    public void testRepeat() {
+        // indexes above the Integer cache are boxed for the consumer
+        contract("repeat", n -> {
+            final long[] sum = new long[1];
+            return () -> {
+                Consumers.repeat(n, i -> sum[0] += i);
+                return sum[0];
+            };
+        }).allocatesAtMostPerElement(16).scalesLinearly().verify();
+
+        contract("repeatInt", n -> {
+            final long[] sum = new long[1];
+            return () -> {
+                Consumers.repeatInt(n, i -> sum[0] += i);
+                return sum[0];
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("repeatLong", n -> {
+            final long[] sum = new long[1];
+            return () -> {
+                Consumers.repeatLong(n, l -> sum[0] += l);
+                return sum[0];
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("repeatChunked", n -> {
+            final long[] sum = new long[1];
+            return () -> {
+                Consumers.repeatChunked(n, 64, (from, to) -> sum[0] += to - from);
+                return sum[0];
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+}
@@ -0,0 +1,122 @@
+package utilities;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.function.LongPredicate;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static testutils.PerformanceContract.contract;
+import static testutils.PerformanceContract.ints;
+
+public class PredicatesBudgetTest {
+
+    @Test
+    public void testParity() {
+        contract("even", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.even();
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("odd", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.odd();
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testCombinedPredicates() {
+        contract("allOf", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.allOf(Predicates.even(), t -> t > 10, t -> t < n);
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("and, or and not", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.or(Predicates.and(Predicates.even(), t -> t > 10), Predicates.not(t -> t < n));
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("xor", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.xor(Predicates.even(), t -> t > n / 2);
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("anyOf", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.anyOf(Predicates.even(), t -> t < 10, t -> t > n - 10);
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("noneOf", n -> {
+            final List<Integer> ts = ints(n);
+            final Predicate<Integer> predicate = Predicates.noneOf(Predicates.even(), t -> t < 10, t -> t > n - 10);
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("intXor", n -> {
+            final IntPredicate predicate = Predicates.intXor(Predicates.intEven(), i -> i > n / 2);
+            return () -> {
+                int matched = 0;
+                for (int i = 0; i < n; i++) {
+                    matched += predicate.test(i) ? 1 : 0;
+                }
+                return matched;
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("longXor", n -> {
+            final LongPredicate predicate = Predicates.longXor(Predicates.longEven(), l -> l > n / 2);
+            return () -> {
+                int matched = 0;
+                for (long l = 0; l < n; l++) {
+                    matched += predicate.test(l) ? 1 : 0;
+                }
+                return matched;
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testPrimitiveParity() {
+        contract("intEven and intOdd", n -> {
+            final IntPredicate even = Predicates.intEven();
+            final IntPredicate odd = Predicates.intOdd();
+            return () -> {
+                int matched = 0;
+                for (int i = 0; i < n; i++) {
+                    matched += even.test(i) || odd.test(i) ? 1 : 0;
+                }
+                return matched;
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+
+        contract("longEven and longOdd", n -> {
+            final LongPredicate even = Predicates.longEven();
+            final LongPredicate odd = Predicates.longOdd();
+            return () -> {
+                int matched = 0;
+                for (long l = 0; l < n; l++) {
+                    matched += even.test(l) || odd.test(l) ? 1 : 0;
+                }
+                return matched;
+            };
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testMemoize() {
+        // 100 distinct keys in a cache of 1000, so every call after the first 100 is a hit on a protected entry
+        contract("memoize", n -> {
+            final List<Integer> ts = ints(n).stream().map(t -> t % 100).collect(Collectors.toList());
+            final Predicate<Integer> predicate = Predicates.memoize(Predicates.even(), 1000);
+            return () -> ts.stream().filter(predicate).count();
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+}
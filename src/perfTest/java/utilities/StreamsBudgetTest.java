@@ -0,0 +1,41 @@
+package utilities;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static testutils.PerformanceContract.contract;
+import static testutils.PerformanceContract.ints;
+
+public class StreamsBudgetTest {
+
+    @Test
+    public void testReverseRange() {
+        contract("reverseRange", n -> () -> Streams.reverseRange(0, n).sum())
+                .allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testFromOptionals() {
+        contract("fromOptionals", n -> {
+            final List<Optional<Integer>> maybes = ints(n).stream()
+                    .map(i -> i % 2 == 0 ? Optional.of(i) : Optional.<Integer>empty())
+                    .collect(Collectors.toList());
+            return () -> Streams.fromOptionals(maybes).count();
+        }).allocatesConstant().scalesLinearly().verify();
+    }
+
+    @Test
+    public void testWindowsAndStreamOps() {
+        contract("rollingSum", n -> () -> Windows.rollingSum(IntStream.range(0, n), 16, 1).sum())
+                .allocatesConstant().scalesLinearly().verify();
+
+        contract("partition", n -> {
+            final List<Integer> ts = ints(n);
+            return () -> StreamOps.partition(ts.stream(), 64).count();
+        }).allocatesAtMostPerElement(32).scalesLinearly().verify();
+    }
+}
@@ -0,0 +1,74 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+import java.util.function.BiConsumer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class BitmapTest {
+
+    @Test
+    public void testAddAndContains() {
+        final Bitmap bitmap = Bitmap.of(5, 1, 70000, 5);
+        assertThat(bitmap.cardinality(), is(3));
+        assertThat(bitmap.contains(1), is(true));
+        assertThat(bitmap.contains(70000), is(true));
+        assertThat(bitmap.contains(2), is(false));
+        assertThat(bitmap.contains(-1), is(false));
+        assertThat(bitmap.toArray(), is(new int[]{ 1, 5, 70000 }));
+        assertThat(new Bitmap().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testRange() {
+        assertThat(Bitmap.range(3, 7), is(Bitmap.of(3, 4, 5, 6)));
+        assertThat(Bitmap.range(0, 200000).cardinality(), is(200000));
+        assertThat(Bitmap.range(65530, 65540).toArray(), is(new int[]{ 65530, 65531, 65532, 65533, 65534, 65535, 65536, 65537, 65538, 65539 }));
+        assertThat(Bitmap.range(5, 5).isEmpty(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        new Bitmap().add(-1);
+    }
+
+    @Test
+    public void testOperationsAgainstBitSet() {
+        final Random random = new Random(42);
+        // densities either side of the array/bitmap container threshold
+        for (final int bound : new int[]{ 1000, 300000 }) {
+            final Bitmap a = new Bitmap();
+            final Bitmap b = new Bitmap();
+            final BitSet aBits = new BitSet();
+            final BitSet bBits = new BitSet();
+            for (int i = 0; i < 100000; i++) {
+                final int aValue = random.nextInt(bound);
+                final int bValue = random.nextInt(bound * 2);
+                a.add(aValue);
+                aBits.set(aValue);
+                b.add(bValue);
+                bBits.set(bValue);
+            }
+
+            assertThat(a.toArray(), is(aBits.stream().toArray()));
+            assertThat(a.and(b).toArray(), is(op(aBits, bBits, BitSet::and).stream().toArray()));
+            assertThat(a.or(b).toArray(), is(op(aBits, bBits, BitSet::or).stream().toArray()));
+            assertThat(a.xor(b).toArray(), is(op(aBits, bBits, BitSet::xor).stream().toArray()));
+            assertThat(a.andNot(b).toArray(), is(op(aBits, bBits, BitSet::andNot).stream().toArray()));
+
+            final BitSet notA = (BitSet) aBits.clone();
+            notA.flip(0, bound);
+            assertThat(a.not(bound).toArray(), is(notA.stream().toArray()));
+        }
+    }
+
+    private BitSet op(final BitSet one, final BitSet two, final BiConsumer<BitSet, BitSet> operation) {
+        final BitSet result = (BitSet) one.clone();
+        operation.accept(result, two);
+        return result;
+    }
+}
@@ -0,0 +1,103 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class CacheTest {
+
+    @Test
+    public void testHitsAndMisses() {
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Cache<Integer, Integer> cache = new Cache<>(10);
+        final Function<Integer, Integer> square = cache.memoize(i -> {
+            calls.incrementAndGet();
+            return i * i;
+        });
+
+        assertThat(square.apply(3), is(9));
+        assertThat(square.apply(3), is(9));
+        assertThat(square.apply(4), is(16));
+        assertThat(calls.get(), is(2));
+        assertThat(cache.hitCount(), is(1L));
+        assertThat(cache.missCount(), is(2L));
+
+        cache.invalidate(3);
+        assertThat(square.apply(3), is(9));
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void testBoundedWithFrequentKeysKept() {
+        final Cache<Integer, Integer> cache = new Cache<>(16);
+        // read key 0 twice so it is promoted out of probation, then flood the cache with one-off keys
+        cache.get(0, i -> i);
+        cache.get(0, i -> i);
+        IntStream.range(1, 1000).forEach(i -> cache.get(i, Function.identity()));
+
+        assertThat(cache.size(), is(16));
+        assertThat(cache.evictionCount(), is(1000L - 16));
+        final long misses = cache.missCount();
+        cache.get(0, i -> i);
+        assertThat(cache.missCount(), is(misses));
+    }
+
+    @Test
+    public void testSingleEntryCacheKeepsNewestKey() {
+        final Cache<Integer, Integer> cache = new Cache<>(1);
+        cache.get(0, i -> i);
+        cache.get(0, i -> i);
+        cache.get(1, i -> i);
+
+        assertThat(cache.size(), is(1));
+        final long misses = cache.missCount();
+        cache.get(1, i -> i);
+        assertThat(cache.missCount(), is(misses));
+        cache.get(0, i -> i);
+        assertThat(cache.missCount(), is(misses + 1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroMaxSizeThrows() {
+        new Cache<>(0);
+    }
+
+    @Test
+    public void testExpireAfterWrite() {
+        final AtomicLong now = new AtomicLong(0);
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Cache<String, Integer> cache = new Cache<>(10, TimeUnit.SECONDS.toNanos(5), now::get);
+
+        cache.get("key", key -> calls.incrementAndGet());
+        now.set(TimeUnit.SECONDS.toNanos(4));
+        cache.get("key", key -> calls.incrementAndGet());
+        assertThat(calls.get(), is(1));
+
+        now.set(TimeUnit.SECONDS.toNanos(5));
+        assertThat(cache.get("key", key -> calls.incrementAndGet()), is(2));
+    }
+
+    @Test
+    public void testMemoizeSupplier() {
+        final AtomicInteger calls = new AtomicInteger(0);
+        final Supplier<Integer> memoized = Cache.memoize(calls::incrementAndGet, 1, TimeUnit.HOURS);
+        assertThat(memoized.get(), is(1));
+        assertThat(memoized.get(), is(1));
+    }
+
+    @Test
+    public void testConcurrentUse() {
+        final Cache<Integer, Integer> cache = new Cache<>(100);
+        IntStream.range(0, 100000).parallel().forEach(i -> assertThat(cache.get(i % 150, k -> k * 2), is(i % 150 * 2)));
+        assertThat(cache.size(), is(100));
+        assertThat(cache.hitCount() + cache.missCount(), is(100000L));
+    }
+}
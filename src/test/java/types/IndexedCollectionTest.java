@@ -0,0 +1,118 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.fail;
+import static utilities.Collections.indicesOf;
+
+public class IndexedCollectionTest {
+
+    @Test
+    public void testHashIndex() {
+        final IndexedCollection<String> words = new IndexedCollection<>(asList("one", "two", "three", "four"));
+        final IndexedCollection.Index<Integer, String> byLength = words.hashIndex(String::length);
+
+        assertThat(byLength.find(3), is(Optional.of("one")));
+        assertThat(byLength.findIndex(5), is(OptionalInt.of(2)));
+        assertThat(byLength.findAll(3), contains("one", "two"));
+        assertThat(byLength.indicesOf(4), contains(3));
+        assertThat(byLength.find(6), is(Optional.empty()));
+
+        words.add("eleven");
+        assertThat(byLength.find(6), is(Optional.of("eleven")));
+
+        words.remove("one");
+        assertThat(byLength.findAll(3), contains("two"));
+        assertThat(byLength.indicesOf(3), contains(0));
+        assertThat(byLength.indicesOf(6), contains(3));
+    }
+
+    @Test
+    public void testSortedIndex() {
+        final IndexedCollection<String> words = new IndexedCollection<>(asList("ccc", "a", "bb", "dddd"));
+        final IndexedCollection.SortedIndex<Integer, String> byLength = words.sortedIndex(String::length);
+
+        assertThat(byLength.findBetween(2, 4), contains("bb", "ccc"));
+        words.removeAt(0);
+        assertThat(byLength.findBetween(2, 4), contains("bb"));
+        assertThat(byLength.findBetween(5, 9), is(empty()));
+    }
+
+    @Test
+    public void testIndicesOf() {
+        final IndexedCollection<String> words = new IndexedCollection<>(asList("foo", "bar", "baz", "bar"));
+        assertThat(indicesOf(words, "bar"), contains(1, 3));
+
+        words.add("bar");
+        final Iterator<String> iterator = words.iterator();
+        iterator.next();
+        iterator.remove();
+        assertThat(indicesOf(words, "bar"), contains(0, 2, 3));
+        assertThat(indicesOf(words, "foo"), is(empty()));
+
+        final IndexedCollection.Index<String, String> self = words.identityIndex();
+        assertThat(words.identityIndex(), is(self));
+        assertThat(indicesOf(words, "bar"), contains(0, 2, 3));
+        words.remove("baz");
+        assertThat(indicesOf(words, "bar"), contains(0, 1, 2));
+    }
+
+    @Test
+    public void testRemovingKeepsIndexesInStep() {
+        final IndexedCollection<Integer> numbers = new IndexedCollection<>(IntStream.range(0, 100).boxed().collect(Collectors.toList()));
+        final IndexedCollection.Index<Integer, Integer> byParity = numbers.hashIndex(i -> i % 2);
+        final IndexedCollection.SortedIndex<Integer, Integer> byValue = numbers.sortedIndex(i -> i);
+        for (int i = 0; i < 90; i += 3) {
+            numbers.remove(i);
+            numbers.add(100 + i);
+        }
+        numbers.removeIf(i -> i % 5 == 0);
+
+        final List<Integer> expected = new ArrayList<>(numbers);
+        for (int position = 0; position < expected.size(); position++) {
+            assertThat(byValue.findIndex(expected.get(position)), is(OptionalInt.of(position)));
+        }
+        assertThat(byParity.findAll(1), is(expected.stream().filter(i -> i % 2 == 1).collect(Collectors.toList())));
+        assertThat(byValue.findBetween(95, 110), contains(96, 97, 98, 99, 103, 106, 109));
+
+        while (numbers.size() > 3) {
+            numbers.removeAt(1);
+        }
+        assertThat(numbers, contains(1, 184, 187));
+        assertThat(byValue.indicesOf(187), contains(2));
+        assertThat(byParity.findAll(0), contains(184));
+    }
+
+    @Test
+    public void testSortedIndexRejectsNullKeys() {
+        final IndexedCollection<String> words = new IndexedCollection<>(asList("a", "bb"));
+        final IndexedCollection.Index<Integer, String> byLength = words.hashIndex(String::length);
+        final IndexedCollection.SortedIndex<String, String> byNull = words.sortedIndex(w -> w.equals("ccc") ? null : w);
+        try {
+            words.add("ccc");
+            fail("Expected a NullPointerException");
+        } catch (final NullPointerException e) {
+            assertThat(words, contains("a", "bb"));
+            assertThat(byLength.find(3), is(Optional.empty()));
+            assertThat(byNull.findBetween("a", "z"), contains("a", "bb"));
+        }
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testSortedIndexOnNullKeysThrows() {
+        new IndexedCollection<>(asList("a", null)).sortedIndex(w -> w);
+    }
+}
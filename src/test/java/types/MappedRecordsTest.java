@@ -0,0 +1,121 @@
+package types;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import utilities.Collections;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class MappedRecordsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testFixedSize() throws IOException {
+        final Path file = write("aaabbbcccdddeeef".getBytes(StandardCharsets.US_ASCII));
+        final MappedRecords records = MappedRecords.fixedSize(file, 3);
+        assertThat(records.size(), is(5));
+        assertThat(strings(records), contains("aaa", "bbb", "ccc", "ddd", "eee"));
+        assertThat(records.get(1).isReadOnly(), is(true));
+    }
+
+    @Test
+    public void testLengthPrefixed() throws IOException {
+        final Path file = prefixed("one", "", "three", "four");
+        final MappedRecords records = MappedRecords.lengthPrefixed(file);
+        assertThat(strings(records), contains("one", "", "three", "four"));
+    }
+
+    @Test
+    public void testRecordsSpanningSeveralRegions() throws IOException {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            values.add("record" + i);
+        }
+        // regions of 40 bytes hold 2 or 3 of these records each
+        final MappedRecords prefixed = MappedRecords.lengthPrefixed(prefixed(values.toArray(new String[0])), 40);
+        assertThat(strings(prefixed), is(values));
+
+        final StringBuilder sixes = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sixes.append(String.format("rec%03d", i));
+        }
+        final MappedRecords fixed = MappedRecords.fixedSize(write(sixes.toString().getBytes(StandardCharsets.US_ASCII)), 6, 40);
+        assertThat(fixed.size(), is(100));
+        assertThat(string(fixed.get(0)), is("rec000"));
+        assertThat(string(fixed.get(7)), is("rec007"));
+        assertThat(string(fixed.get(99)), is("rec099"));
+    }
+
+    @Test
+    public void testZeroCopyViews() throws IOException {
+        final MappedRecords records = MappedRecords.lengthPrefixed(prefixed("a", "b", "c", "d", "e"));
+
+        assertThat(Collections.slice(records, 1, 4), instanceOf(MappedRecords.class));
+        assertThat(strings(Collections.slice(records, 1, 4)), contains("b", "c", "d"));
+        assertThat(Collections.reverse(records), instanceOf(MappedRecords.class));
+        assertThat(strings(Collections.reverse(records)), contains("e", "d", "c", "b", "a"));
+        assertThat(strings(records.reversed().subList(1, 3)), contains("d", "c"));
+        assertThat(string(Collections.last(records.reversed())), is("a"));
+
+        final List<List<String>> partitions = Collections.partition(records, 2).stream()
+                .peek(partition -> assertThat(partition, instanceOf(MappedRecords.class)))
+                .map(MappedRecordsTest::strings)
+                .collect(Collectors.toList());
+        assertThat(partitions.toString(), is("[[a, b], [c, d], [e]]"));
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        final ByteBuffer bytes = ByteBuffer.allocate(6).putInt(5).put((byte) 'a').put((byte) 'b');
+        MappedRecords.lengthPrefixed(write(bytes.array()));
+    }
+
+    @Test(expected = IOException.class)
+    public void testRecordTooBigForRegion() throws IOException {
+        MappedRecords.lengthPrefixed(prefixed("a much longer record than the region"), 16);
+    }
+
+    private Path write(final byte[] bytes) throws IOException {
+        final Path file = folder.newFile().toPath();
+        Files.write(file, bytes);
+        return file;
+    }
+
+    private Path prefixed(final String... values) throws IOException {
+        int size = 0;
+        for (final String value : values) {
+            size += Integer.BYTES + value.length();
+        }
+        final ByteBuffer bytes = ByteBuffer.allocate(size);
+        for (final String value : values) {
+            bytes.putInt(value.length()).put(value.getBytes(StandardCharsets.US_ASCII));
+        }
+        return write(bytes.array());
+    }
+
+    private static List<String> strings(final Collection<ByteBuffer> records) {
+        return records.stream().map(MappedRecordsTest::string).collect(Collectors.toList());
+    }
+
+    private static String string(final ByteBuffer record) {
+        final byte[] bytes = new byte[record.remaining()];
+        record.duplicate().get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
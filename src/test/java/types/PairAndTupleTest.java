@@ -2,7 +2,11 @@ package types;
 
 import org.junit.Test;
 
+import java.util.ArrayList;
+
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.core.Is.is;
 
 public class PairAndTupleTest {
@@ -24,4 +28,92 @@ public class PairAndTupleTest {
         assertThat(tuple.getTwo(), is("one"));
         assertThat(tuple._2(), is("one"));
     }
+
+    @Test
+    public void testPrimitiveTuples() {
+        final IntTuple intTuple = new IntTuple(1, 2);
+        assertThat(intTuple._1(), is(1));
+        assertThat(intTuple.getTwo(), is(2));
+        assertThat(intTuple, is(new IntTuple(1, 2)));
+
+        final IntObjTuple<String> intObjTuple = new IntObjTuple<>(1, "one");
+        assertThat(intObjTuple._1(), is(1));
+        assertThat(intObjTuple.getTwo(), is("one"));
+        assertThat(intObjTuple, is(new IntObjTuple<>(1, "one")));
+
+        final LongPair longPair = new LongPair(1L, 2L);
+        assertThat(longPair.getOne(), is(1L));
+        assertThat(longPair._2(), is(2L));
+        assertThat(longPair.hashCode(), is(new LongPair(1L, 2L).hashCode()));
+
+        final DoublePair doublePair = new DoublePair(0.5, Double.NaN);
+        assertThat(doublePair.getOne(), is(0.5));
+        assertThat(doublePair, is(new DoublePair(0.5, Double.NaN)));
+    }
+
+    @Test
+    public void testTupleList() {
+        final TupleList<Integer, String> tupleList = new TupleList<>(new ArrayList<>(asList(1, 2)), new ArrayList<>(asList("one", "two")));
+        tupleList.add(3, "three");
+        tupleList.add(new Tuple<>(4, "four"));
+        assertThat(tupleList, hasSize(4));
+        assertThat(tupleList.get(2), is(new Tuple<>(3, "three")));
+        assertThat(tupleList.getOne(3), is(4));
+        assertThat(tupleList.getTwo(3), is("four"));
+
+        tupleList.remove(0);
+        assertThat(tupleList.getOnes(), is(asList(2, 3, 4)));
+        assertThat(tupleList.getTwos(), is(asList("two", "three", "four")));
+
+        final StringBuilder pairs = new StringBuilder();
+        tupleList.forEach((one, two) -> pairs.append(one).append(two));
+        assertThat(pairs.toString(), is("2two3three4four"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTupleListMismatchedColumns() {
+        new TupleList<>(asList(1, 2), asList("one"));
+    }
+
+    @Test
+    public void testIntTupleList() {
+        final IntTupleList tupleList = new IntTupleList(IntList.of(1, 2), IntList.of(10, 20));
+        tupleList.add(3, 30);
+        tupleList.add(new IntTuple(4, 40));
+        assertThat(tupleList, hasSize(4));
+        assertThat(tupleList.get(2), is(new IntTuple(3, 30)));
+        assertThat(tupleList.getOne(3), is(4));
+        assertThat(tupleList.getTwo(3), is(40));
+        assertThat(tupleList, is(asList(new IntTuple(1, 10), new IntTuple(2, 20), new IntTuple(3, 30), new IntTuple(4, 40))));
+
+        assertThat(tupleList.set(0, new IntTuple(5, 50)), is(new IntTuple(1, 10)));
+        assertThat(tupleList.getOnes(), is(IntList.of(5, 2, 3, 4)));
+        assertThat(tupleList.getTwos(), is(IntList.of(50, 20, 30, 40)));
+    }
+
+    @Test
+    public void testLongPairList() {
+        final LongPairList pairList = new LongPairList(LongList.of(1L << 40), LongList.of(-1));
+        pairList.add(2, 20);
+        pairList.add(new LongPair(3, 30));
+        assertThat(pairList, hasSize(3));
+        assertThat(pairList.get(0), is(new LongPair(1L << 40, -1)));
+        assertThat(pairList.getOne(2), is(3L));
+        assertThat(pairList.getTwo(1), is(20L));
+        assertThat(pairList.contains(new LongPair(2, 20)), is(true));
+
+        assertThat(pairList.set(1, new LongPair(4, 40)), is(new LongPair(2, 20)));
+        assertThat(pairList.getOnes(), is(LongList.of(1L << 40, 4, 3)));
+        assertThat(pairList.getTwos(), is(LongList.of(-1, 40, 30)));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testPrimitiveTupleListsCannotRemove() {
+        new IntTupleList(IntList.of(1), IntList.of(10)).remove(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIntTupleListMismatchedColumns() {
+        new IntTupleList(IntList.of(1, 2), IntList.of(10));
+    }
 }
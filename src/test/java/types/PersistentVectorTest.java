@@ -0,0 +1,114 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void testHeadTailInitLast() {
+        final PersistentVector<Integer> vector = PersistentVector.of(1, 2, 3, 4, 5);
+        assertThat(vector.head(), is(1));
+        assertThat(vector.last(), is(5));
+        assertThat(vector.tail(), contains(2, 3, 4, 5));
+        assertThat(vector.init(), contains(1, 2, 3, 4));
+        assertThat(vector.tail().init(), is(Arrays.asList(2, 3, 4)));
+        assertThat(vector, contains(1, 2, 3, 4, 5));
+    }
+
+    @Test
+    public void testRecursiveTail() {
+        PersistentVector<Integer> vector = PersistentVector.copyOf(range(0, 10000));
+        long sum = 0;
+        while (!vector.isEmpty()) {
+            sum += vector.head();
+            vector = vector.tail();
+        }
+        assertThat(sum, is(49995000L));
+    }
+
+    @Test
+    public void testAppendAndPrepend() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        for (int i = 0; i < 1000; i++) {
+            vector = vector.appended(i);
+        }
+        assertThat(vector, is(range(0, 1000)));
+
+        final PersistentVector<Integer> prepended = vector.prepended(-1);
+        assertThat(prepended.get(0), is(-1));
+        assertThat(prepended.size(), is(1001));
+        assertThat(vector.get(0), is(0));
+    }
+
+    @Test
+    public void testConcatAndSliceAgainstArrayList() {
+        final Random random = new Random(11);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 200; round++) {
+            final List<Integer> chunk = range(round * 100, round * 100 + random.nextInt(100));
+            if (random.nextBoolean()) {
+                vector = vector.concat(chunk);
+                expected.addAll(chunk);
+            } else {
+                vector = PersistentVector.copyOf(chunk).concat(vector);
+                expected.addAll(0, chunk);
+            }
+            if (vector.size() > 2 && random.nextInt(4) == 0) {
+                final int from = random.nextInt(vector.size() / 2);
+                final int to = vector.size() - random.nextInt(vector.size() / 2);
+                vector = vector.subList(from, to);
+                expected = new ArrayList<>(expected.subList(from, to));
+            }
+            assertThat(vector, is(expected));
+            for (int i = 0; i < vector.size(); i += 7) {
+                assertThat(vector.get(i), is(expected.get(i)));
+            }
+        }
+
+        final PersistentVector<Integer> left = PersistentVector.copyOf(range(0, 500)).subList(100, 300);
+        final PersistentVector<Integer> right = PersistentVector.copyOf(range(0, 500)).subList(250, 260);
+        final List<Integer> joined = new ArrayList<>(range(100, 300));
+        joined.addAll(range(250, 260));
+        assertThat(left.concat(right), is(joined));
+        assertThat(left.concat(right).subList(195, 205), is(joined.subList(195, 205)));
+    }
+
+    @Test
+    public void testEquality() {
+        assertThat(PersistentVector.of(1, 2, 3).equals(Arrays.asList(1, 2, 3)), is(true));
+        assertThat(PersistentVector.of(1, 2, 3).hashCode(), is(Arrays.asList(1, 2, 3).hashCode()));
+        assertThat(PersistentVector.empty().isEmpty(), is(true));
+    }
+
+    @Test
+    public void testSubListIsVector() {
+        assertThat(PersistentVector.of(1, 2, 3).subList(1, 2), instanceOf(PersistentVector.class));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutsideSlice() {
+        PersistentVector.of(1, 2, 3).tail().get(2);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        PersistentVector.of(1, 2, 3).add(4);
+    }
+
+    private static List<Integer> range(final int from, final int to) {
+        return IntStream.range(from, to).boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,64 @@
+package types;
+
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+
+public class PrimitiveListsTest {
+
+    @Test
+    public void testIntList() {
+        final IntList ints = IntList.of(1, 2, 3);
+        for (int i = 4; i <= 20; i++) {
+            ints.add(i % 3);
+        }
+        assertThat(ints.size(), is(20));
+        assertThat(ints.get(0), is(1));
+        assertThat(ints.set(19, 42), is(2));
+        assertThat(ints.get(19), is(42));
+
+        assertThat(ints.slice(1, 3), is(IntList.of(2, 3)));
+        assertThat(IntList.of(1, 2, 3).reverse(), is(IntList.of(3, 2, 1)));
+        assertThat(IntList.of(5, 6, 5).indicesOf(5), is(IntList.of(0, 2)));
+        assertThat(IntList.of(1, 2, 3, 4, 5).partition(2), contains(IntList.of(1, 2), IntList.of(3, 4), IntList.of(5)));
+        assertThat(IntList.fill(7, 3), is(IntList.of(7, 7, 7)));
+        assertThat(IntList.of(1, 2, 3).stream().sum(), is(6));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIntListOutOfBounds() {
+        new IntList(10).get(0);
+    }
+
+    @Test
+    public void testLongList() {
+        final long[] counter = { 0 };
+        assertThat(LongList.fill(() -> counter[0]++, 4), is(LongList.of(0, 1, 2, 3)));
+        assertThat(LongList.of(1, 2, 3, 4).partition(3), contains(LongList.of(1, 2, 3), LongList.of(4)));
+        assertThat(LongList.of(1, 2, 1).indicesOf(1), is(IntList.of(0, 2)));
+    }
+
+    @Test
+    public void testDoubleList() {
+        assertThat(DoubleList.of(0.5, Double.NaN, 0.5).indicesOf(Double.NaN), is(IntList.of(1)));
+        assertThat(DoubleList.of(0.5, 1.5).reverse(), is(DoubleList.of(1.5, 0.5)));
+        assertThat(DoubleList.fill(0.25, 2).toArray(), is(new double[]{ 0.25, 0.25 }));
+    }
+
+    @Test
+    public void testDirectIntList() {
+        final DirectIntList ints = new DirectIntList(0);
+        for (int i = 0; i < 20; i++) {
+            ints.add(i);
+        }
+        assertThat(ints.size(), is(20));
+        assertThat(ints.get(19), is(19));
+        assertThat(ints.slice(3, 6), is(DirectIntList.of(3, 4, 5)));
+        assertThat(ints.partition(8), contains(ints.slice(0, 8), ints.slice(8, 16), ints.slice(16, 20)));
+        assertThat(DirectIntList.of(1, 2, 3).reverse(), is(DirectIntList.of(3, 2, 1)));
+        assertThat(DirectIntList.fill(4, 3).indicesOf(4), is(IntList.of(0, 1, 2)));
+        assertThat(DirectIntList.of(1, 2, 3).stream().sum(), is(6));
+    }
+}
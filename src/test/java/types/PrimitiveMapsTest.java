@@ -0,0 +1,50 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class PrimitiveMapsTest {
+
+    @Test
+    public void testIntObjMapAgainstHashMap() {
+        final Random random = new Random(42);
+        final IntObjMap<Integer> map = new IntObjMap<>(4);
+        final Map<Integer, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            final int key = random.nextInt(200) - 100;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key), is(expected.remove(key)));
+            } else {
+                assertThat(map.put(key, i), is(expected.put(key, i)));
+            }
+            assertThat(map.size(), is(expected.size()));
+        }
+        expected.forEach((key, value) -> assertThat(map.get(key), is(value)));
+    }
+
+    @Test
+    public void testLongLongMapAgainstHashMap() {
+        final Random random = new Random(42);
+        final LongLongMap map = new LongLongMap(4);
+        final Map<Long, Long> expected = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            final long key = random.nextInt(200) * 1000000007L;
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key), is(expected.remove(key) != null));
+            } else {
+                map.put(key, i);
+                expected.put(key, (long) i);
+            }
+            assertThat(map.size(), is(expected.size()));
+        }
+        expected.forEach((key, value) -> assertThat(map.getOrDefault(key, -1), is(value)));
+    }
+}
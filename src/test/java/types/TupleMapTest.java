@@ -0,0 +1,66 @@
+package types;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsNull.nullValue;
+
+public class TupleMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        final TupleMap<String, Integer, String> map = new TupleMap<>();
+        assertThat(map.put("one", 1, "first"), is(nullValue()));
+        assertThat(map.put("one", 2, "second"), is(nullValue()));
+        assertThat(map.put("one", 1, "FIRST"), is("first"));
+        assertThat(map.put(null, null, "nulls"), is(nullValue()));
+
+        assertThat(map.size(), is(3));
+        assertThat(map.get("one", 1), is("FIRST"));
+        assertThat(map.get("one", 2), is("second"));
+        assertThat(map.get(null, null), is("nulls"));
+        assertThat(map.get("two", 1), is(nullValue()));
+        assertThat(map.getOrDefault("two", 1, "none"), is("none"));
+
+        assertThat(map.remove("one", 2), is("second"));
+        assertThat(map.containsKey("one", 2), is(false));
+        assertThat(map.size(), is(2));
+        assertThat(map.toMap().get(new Tuple<>("one", 1)), is("FIRST"));
+
+        map.clear();
+        assertThat(map.isEmpty(), is(true));
+        assertThat(map.containsKey("one", 1), is(false));
+    }
+
+    @Test
+    public void testAgainstHashMap() {
+        final Random random = new Random(42);
+        final TupleMap<Integer, Integer, Integer> map = new TupleMap<>(4);
+        final Map<Tuple<Integer, Integer>, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 100000; i++) {
+            final int a = random.nextInt(50);
+            final int b = random.nextInt(50);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(a, b), is(expected.remove(new Tuple<>(a, b))));
+            } else {
+                assertThat(map.put(a, b, i), is(expected.put(new Tuple<>(a, b), i)));
+            }
+            assertThat(map.size(), is(expected.size()));
+        }
+        assertThat(map.toMap(), is(expected));
+    }
+
+    @Test
+    public void testTupleHashMatchesObjectsHash() {
+        assertThat(new Tuple<>("one", 1).hashCode(), is(Objects.hash("one", 1)));
+        assertThat(new Pair<>(null, 2).hashCode(), is(Objects.hash(null, 2)));
+        assertThat(Tuple.hash("one", 1), is(new Tuple<>("one", 1).hashCode()));
+    }
+}
@@ -2,14 +2,33 @@ package utilities;
 
 import org.junit.Test;
 import testutils.Person;
+import types.Bitmap;
+import types.IntList;
+import types.IntObjMap;
+import types.IntObjTuple;
+import types.LongLongMap;
+import types.LongList;
 import types.Pair;
+import types.PersistentVector;
 import types.Tuple;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -18,24 +37,44 @@ import static org.hamcrest.collection.IsCollectionWithSize.hasSize;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.collection.IsMapContaining.hasEntry;
 import static org.hamcrest.core.Is.is;
+import static org.hamcrest.core.IsInstanceOf.instanceOf;
+import static utilities.Collections.applyBitmap;
 import static utilities.Collections.applyPredicate;
+import static utilities.Collections.bitmapApplyPredicate;
+import static utilities.Collections.bitmapIndicesOf;
+import static utilities.Collections.classify;
+import static utilities.Collections.classifyAll;
+import static utilities.Collections.classifying;
 import static utilities.Collections.discardingPartition;
 import static utilities.Collections.fill;
+import static utilities.Collections.fillConcurrent;
 import static utilities.Collections.find;
 import static utilities.Collections.findIndex;
 import static utilities.Collections.first;
 import static utilities.Collections.flatten;
+import static utilities.Collections.flattenView;
+import static utilities.Collections.get;
 import static utilities.Collections.head;
 import static utilities.Collections.indexed;
 import static utilities.Collections.indexedFrom;
+import static utilities.Collections.indexing;
 import static utilities.Collections.indicesOf;
+import static utilities.Collections.intIndexed;
+import static utilities.Collections.intIndexedFrom;
+import static utilities.Collections.intIndicesOf;
 import static utilities.Collections.init;
 import static utilities.Collections.isNullOrEmpty;
 import static utilities.Collections.last;
 import static utilities.Collections.mid;
 import static utilities.Collections.newCollection;
 import static utilities.Collections.notNullOrEmpty;
+import static utilities.Collections.parallelApplyPredicate;
+import static utilities.Collections.parallelFlatten;
+import static utilities.Collections.parallelIndexed;
+import static utilities.Collections.parallelIndicesOf;
+import static utilities.Collections.parallelReverse;
 import static utilities.Collections.partition;
+import static utilities.Collections.partitioning;
 import static utilities.Collections.partitionNoSingletons;
 import static utilities.Collections.partitionOverlapping;
 import static utilities.Collections.reverse;
@@ -44,10 +83,15 @@ import static utilities.Collections.tail;
 import static utilities.Collections.toOverlappingPairs;
 import static utilities.Collections.toPairs;
 import static utilities.Collections.unzip;
+import static utilities.Collections.unzipping;
+import static utilities.Collections.windowed;
 import static utilities.Collections.zip;
 import static utilities.Collections.zipToMap;
+import static utilities.Predicates.and;
 import static utilities.Predicates.even;
 import static utilities.Predicates.odd;
+import static utilities.Predicates.or;
+import static utilities.Predicates.xor;
 
 public class CollectionsTest {
 
@@ -74,6 +118,81 @@ public class CollectionsTest {
         assertThat(flatten(newCollection(1), newCollection(), newCollection(2, 3, 4, 5), newCollection(6)), is(oneToSix));
     }
 
+    @Test
+    public void testPersistentVector() {
+        final PersistentVector<Integer> vector = PersistentVector.copyOf(oneToFive);
+        assertThat(tail(vector), instanceOf(PersistentVector.class));
+        assertThat(tail(vector), contains(2, 3, 4, 5));
+        assertThat(init(tail(vector)), contains(2, 3, 4));
+        assertThat(mid(vector), contains(2, 3, 4));
+        assertThat(last(vector), is(5));
+        assertThat(flatten(vector, PersistentVector.of(6)), instanceOf(PersistentVector.class));
+        assertThat(flatten(tail(vector), init(vector)), contains(2, 3, 4, 5, 1, 2, 3, 4));
+        final Collection<Integer> none = flatten();
+        none.add(1);
+        assertThat(none, contains(1));
+    }
+
+    @Test
+    public void testFlattenView() {
+        final Collection<Integer> flattened = flattenView(newCollection(1), newCollection(), new ArrayDeque<>(newCollection(2, 3, 4, 5)), newCollection(), newCollection(6));
+        assertThat(flattened, is(oneToSix));
+        assertThat(get(flattened, 0), is(1));
+        assertThat(get(flattened, 3), is(4));
+        assertThat(last(flattened), is(6));
+        assertThat(flattenView(newCollection(), newCollection()), is(newCollection()));
+    }
+
+    @Test
+    public void testFlattenViewInParallel() {
+        final Collection<Integer>[] shards = IntStream.range(0, 100)
+                .mapToObj(i -> IntStream.range(i * 1000, i * 1000 + i % 3 * 500).boxed().collect(Collectors.toList()))
+                .toArray(Collection[]::new);
+        final Collection<Integer> flattened = flattenView(shards);
+        assertThat(flattened.parallelStream().collect(Collectors.toList()), is(flatten(shards)));
+        assertThat(flattened.parallelStream().mapToLong(Integer::longValue).sum(), is(flatten(shards).stream().mapToLong(Integer::longValue).sum()));
+    }
+
+    @Test
+    public void testFlattenViewIteratesNonListShards() {
+        final Collection<Integer> set = new LinkedHashSet<>(newCollection(3, 1, 2));
+        final Collection<Integer> deque = new ArrayDeque<>(newCollection(5, 4));
+        final List<Integer> flattened = flattenView(set, newCollection(), deque);
+
+        final List<Integer> iterated = new ArrayList<>();
+        for (final Integer i : flattened) {
+            iterated.add(i);
+        }
+        assertThat(iterated, contains(3, 1, 2, 5, 4));
+        final List<Integer> forEached = new ArrayList<>();
+        flattened.forEach(forEached::add);
+        assertThat(forEached, contains(3, 1, 2, 5, 4));
+        assertThat(flattened, is(asList(3, 1, 2, 5, 4)));
+        assertThat(flattened.hashCode(), is(asList(3, 1, 2, 5, 4).hashCode()));
+        assertThat(flattened.toString(), is("[3, 1, 2, 5, 4]"));
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testFlattenViewIteratorDetectsSizeChange() {
+        final List<Integer> shard = new ArrayList<>(newCollection(1, 2));
+        final List<Integer> flattened = flattenView(newCollection(0), shard);
+        shard.add(3);
+        flattened.forEach(i -> { });
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testFlattenViewDetectsSizeChange() {
+        final List<Integer> shard = new ArrayList<>(newCollection(1, 2));
+        final List<Integer> flattened = flattenView(newCollection(0), shard);
+        shard.add(3);
+        flattened.get(1);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFlattenViewIsReadOnly() {
+        flattenView(newCollection(1)).add(2);
+    }
+
     @Test
     public void testFill() {
         assertThat(fill("foo", 0), is(newCollection()));
@@ -85,6 +204,27 @@ public class CollectionsTest {
         assertThat(fill(() -> "foo" + counter.getAndIncrement(), 5), is(newCollection("foo1", "foo2", "foo3", "foo4", "foo5")));
     }
 
+    @Test
+    public void testFillConcurrent() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Collection<Integer> filled = fillConcurrent(() -> {
+            final int call = counter.getAndIncrement();
+            sleep(call % 3);
+            return call;
+        }, 50, 8);
+        // the calls are numbered as they start, which can be in a slightly different order from their indexes
+        assertThat(filled.stream().sorted().collect(Collectors.toList()), is(IntStream.range(0, 50).boxed().collect(Collectors.toList())));
+        assertThat(fillConcurrent(() -> "foo", 0, 4), is(newCollection()));
+    }
+
+    @Test(expected = CompletionException.class)
+    public void testFillConcurrentTimeout() {
+        fillConcurrent(() -> {
+            sleep(1000);
+            return "foo";
+        }, 4, 4, Duration.ofMillis(20));
+    }
+
     @Test
     public void testValidators() {
         assertThat(notNullOrEmpty(oneToFive), is(true));
@@ -119,6 +259,8 @@ public class CollectionsTest {
                 new Pair<>(3, 4),
                 new Pair<>(4, 5)
         ));
+        assertThat(toOverlappingPairs(newCollection(1)), is(newCollection()));
+        assertThat(toOverlappingPairs(newCollection()), is(newCollection()));
     }
 
     @Test
@@ -139,6 +281,24 @@ public class CollectionsTest {
         ));
     }
 
+    @Test
+    public void testIntIndexed() {
+        assertThat(intIndexed(words), contains(
+                new IntObjTuple<>(0, "one"),
+                new IntObjTuple<>(1, "two"),
+                new IntObjTuple<>(2, "three")
+        ));
+        assertThat(intIndexedFrom(words, 1), contains(
+                new IntObjTuple<>(1, "one"),
+                new IntObjTuple<>(2, "two"),
+                new IntObjTuple<>(3, "three")
+        ));
+
+        final Collection<String> visited = newCollection();
+        indexed(words, (index, word) -> visited.add(index + word));
+        assertThat(visited, contains("0one", "1two", "2three"));
+    }
+
     @Test
     public void testSlice() {
         assertThat(slice(oneToSix, 0, 0), is(newCollection()));
@@ -148,6 +308,36 @@ public class CollectionsTest {
         assertThat(slice(oneToSix, 0, 4), is(newCollection(1, 2, 3, 4)));
     }
 
+    @Test
+    public void testGetAndSliceUnindexed() {
+        final Collection<Integer> deque = new ArrayDeque<>(oneToSix);
+        final Collection<Integer> sortedSet = new TreeSet<>(oneToSix);
+        final Collection<Integer> set = new LinkedHashSet<>(oneToSix);
+
+        for (final Collection<Integer> ts : asList(deque, sortedSet, set)) {
+            assertThat(get(ts, 0), is(1));
+            assertThat(get(ts, 4), is(5));
+            assertThat(last(ts), is(6));
+            assertThat(slice(ts, 0, 0), is(newCollection()));
+            assertThat(slice(ts, 1, 3), is(newCollection(2, 3)));
+            assertThat(slice(ts, 3, 6), is(newCollection(4, 5, 6)));
+            assertThat(tail(ts), is(newCollection(2, 3, 4, 5, 6)));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetOutOfBounds() {
+        get(new ArrayDeque<>(oneToSix), 6);
+    }
+
+    @Test
+    public void testSliceOfListIsView() {
+        final List<Integer> list = new ArrayList<>(oneToSix);
+        final Collection<Integer> sliced = slice(list, 1, 3);
+        list.set(1, 20);
+        assertThat(sliced, is(newCollection(20, 3)));
+    }
+
     @Test
     public void testSequenceMethods() {
         assertThat(first(oneToFive), is(1));
@@ -185,6 +375,14 @@ public class CollectionsTest {
         ));
     }
 
+    @Test
+    public void testZipUnindexed() {
+        assertThat(zip(new ArrayDeque<>(newCollection("andrea", "ben")), new LinkedHashSet<>(newCollection(true, false))), contains(
+                new Tuple<>("andrea", true),
+                new Tuple<>("ben", false)
+        ));
+    }
+
     @Test
     public void testZipToMap() {
         final Map<String, Boolean> zipped = zipToMap(newCollection("andrea", "ben", "cally"), newCollection(true, false, true));
@@ -193,6 +391,33 @@ public class CollectionsTest {
         assertThat(zipped, hasEntry("cally", true));
     }
 
+    @Test(expected = IllegalStateException.class)
+    public void testZipToMapDuplicateKeys() {
+        zipToMap(newCollection("andrea", "andrea"), newCollection(true, false));
+    }
+
+    @Test
+    public void testZipToMapMerging() {
+        final Map<String, Integer> zipped = zipToMap(newCollection("andrea", "ben", "andrea"), newCollection(1, 2, 3), Integer::sum);
+        assertThat(zipped.size(), is(2));
+        assertThat(zipped, hasEntry("andrea", 4));
+        assertThat(zipped, hasEntry("ben", 2));
+    }
+
+    @Test
+    public void testZipToPrimitiveMap() {
+        final IntObjMap<String> intKeyed = zipToMap(IntList.of(3, 1, 2), newCollection("three", "one", "two"));
+        assertThat(intKeyed.size(), is(3));
+        assertThat(intKeyed.get(1), is("one"));
+        assertThat(intKeyed.get(3), is("three"));
+        assertThat(intKeyed.containsKey(4), is(false));
+
+        final LongLongMap longKeyed = zipToMap(LongList.of(5, 6, 5), LongList.of(1, 2, 3), Long::max);
+        assertThat(longKeyed.size(), is(2));
+        assertThat(longKeyed.getOrDefault(5, -1), is(3L));
+        assertThat(longKeyed.getOrDefault(7, -1), is(-1L));
+    }
+
     @Test
     public void testUnzip() {
         assertThat(unzip(newCollection(new Tuple<>("andrea", true), new Tuple<>("ben", false), new Tuple<>("cally", true))), is(
@@ -200,6 +425,24 @@ public class CollectionsTest {
         ));
     }
 
+    @Test
+    public void testUnzipZipped() {
+        final Tuple<Collection<String>, Collection<Boolean>> unzipped = unzip(zip(newCollection("andrea", "ben", "cally"), newCollection(true, false, true)));
+        assertThat(unzipped._1(), is(newCollection("andrea", "ben", "cally")));
+        assertThat(unzipped._2(), is(newCollection(true, false, true)));
+    }
+
+    @Test
+    public void testCollectors() {
+        final List<Integer> ts = IntStream.range(0, Collections.PARALLEL_THRESHOLD).boxed().collect(Collectors.toList());
+        final List<String> strings = ts.stream().map(String::valueOf).collect(Collectors.toList());
+
+        assertThat(zip(ts, strings).parallelStream().collect(unzipping()), is(new Tuple<>(ts, strings)));
+        assertThat(ts.parallelStream().collect(partitioning(100)), is(partition(ts, 100)));
+        assertThat(ts.parallelStream().collect(indexing()), is(indexed(ts)));
+        assertThat(words.stream().collect(indexing()), contains(new Tuple<>(0, "one"), new Tuple<>(1, "two"), new Tuple<>(2, "three")));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidPartition() {
         partition(oneToSix, 0);
@@ -220,6 +463,23 @@ public class CollectionsTest {
         assertThat(partition(oneToSix, 6), contains(oneToSix));
     }
 
+    @Test
+    public void testPartitionUnindexed() {
+        assertThat(partition(new ArrayDeque<>(oneToFive), 2), contains(newCollection(1, 2), newCollection(3, 4), newCollection(5)));
+        assertThat(partition(newCollection(), 2), is(newCollection()));
+    }
+
+    @Test
+    public void testPartitionInParallel() {
+        final List<Integer> oneToTenThousand = IntStream.rangeClosed(1, 10000).boxed().collect(Collectors.toList());
+        final List<Integer> sums = partition(oneToTenThousand, 100).parallelStream()
+                .map(p -> p.stream().mapToInt(Integer::intValue).sum())
+                .collect(Collectors.toList());
+        assertThat(sums, hasSize(100));
+        assertThat(sums.get(0), is(5050));
+        assertThat(sums.get(99), is(995050));
+    }
+
     @Test
     public void testDiscardingPartition() {
         assertThat(discardingPartition(oneToSix, 1), contains(newCollection(1), newCollection(2), newCollection(3), newCollection(4), newCollection(5), newCollection(6)));
@@ -245,6 +505,33 @@ public class CollectionsTest {
         assertThat(of8, contains(newCollection(1, 2, 3, 4, 5, 6, 7), newCollection(8, 9)));
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void testPartitionNoSingletonOfOneElement() {
+        partitionNoSingletons(newCollection(1), 3);
+    }
+
+    @Test
+    public void testPartitionsAreReadOnlyViews() {
+        final List<Integer> ts = new ArrayList<>(oneToNine);
+        final List<Collection<Integer>> partitions = new ArrayList<>(partition(ts, 4));
+        ts.set(0, 100);
+        assertThat(partitions.get(0), contains(100, 2, 3, 4));
+        try {
+            partitions.get(0).add(5);
+            throw new AssertionError("partitions should be read-only");
+        } catch (final UnsupportedOperationException e) {
+            assertThat(ts, hasSize(9));
+        }
+    }
+
+    @Test(expected = ConcurrentModificationException.class)
+    public void testPartitionsDetectSizeChange() {
+        final List<Integer> ts = new ArrayList<>(oneToNine);
+        final Collection<Collection<Integer>> partitions = partition(ts, 4);
+        ts.add(10);
+        partitions.iterator().next();
+    }
+
     @Test
     public void testPartitionOverlapping() {
         final Collection<Collection<Integer>> of3 = partitionOverlapping(oneToNine, 3);
@@ -267,6 +554,30 @@ public class CollectionsTest {
         assertThat(partitionOverlapping(oneToNine, 9), contains(newCollection(1, 2, 3, 4, 5, 6, 7, 8, 9)));
     }
 
+    @Test
+    public void testPartitionOfLinkedList() {
+        final List<Integer> linked = new LinkedList<>(oneToNine);
+        final Collection<Collection<Integer>> partitions = partition(linked, 4);
+        linked.set(0, 100);
+        // a linked list is copied once rather than walked by every partition
+        assertThat(partitions, contains(newCollection(1, 2, 3, 4), newCollection(5, 6, 7, 8), newCollection(9)));
+        assertThat(partitions.spliterator().hasCharacteristics(Spliterator.IMMUTABLE), is(false));
+    }
+
+    @Test
+    public void testWindowed() {
+        assertThat(windowed(oneToFive, 2, 1), contains(newCollection(1, 2), newCollection(2, 3), newCollection(3, 4), newCollection(4, 5)));
+        assertThat(windowed(oneToNine, 3, 2), contains(newCollection(1, 2, 3), newCollection(3, 4, 5), newCollection(5, 6, 7), newCollection(7, 8, 9)));
+        assertThat(windowed(oneToNine, 2, 3), contains(newCollection(1, 2), newCollection(4, 5), newCollection(7, 8)));
+        assertThat(windowed(oneToFive, 6, 1), hasSize(0));
+        assertThat(windowed(new LinkedHashSet<>(oneToFive), 4, 1), contains(newCollection(1, 2, 3, 4), newCollection(2, 3, 4, 5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowedInvalidStep() {
+        windowed(oneToFive, 2, 0);
+    }
+
     @Test
     public void testReverse() {
         assertThat(reverse(oneToFive), is(newCollection(5, 4, 3, 2, 1)));
@@ -279,9 +590,61 @@ public class CollectionsTest {
         assertThat(indicesOf(newCollection("foo", "bar", "baz", "bar"), "bar"), is(newCollection(1, 3)));
     }
 
+    @Test
+    public void testIntIndicesOf() {
+        assertThat(intIndicesOf(newCollection("foo", "bar", "baz"), "qux"), is(new int[0]));
+        assertThat(intIndicesOf(newCollection("foo", "bar", "baz", "bar"), "bar"), is(new int[]{ 1, 3 }));
+        assertThat(intIndicesOf(fill("foo", 20), "foo"), is(IntStream.range(0, 20).toArray()));
+    }
+
+    @Test
+    public void testBitmapSelection() {
+        assertThat(bitmapIndicesOf(newCollection("foo", "bar", "baz", "bar"), "bar"), is(Bitmap.of(1, 3)));
+
+        final Bitmap evens = bitmapApplyPredicate(oneToNine, even());
+        final Bitmap small = bitmapApplyPredicate(oneToNine, i -> i < 5);
+        assertThat(applyBitmap(oneToNine, evens.and(small)), is(applyPredicate(oneToNine, and(even(), i -> i < 5))));
+        assertThat(applyBitmap(oneToNine, evens.or(small)), is(applyPredicate(oneToNine, or(even(), i -> i < 5))));
+        assertThat(applyBitmap(oneToNine, evens.xor(small)), is(applyPredicate(oneToNine, xor(even(), i -> i < 5))));
+        assertThat(applyBitmap(oneToNine, evens.not(oneToNine.size())), is(applyPredicate(oneToNine, odd())));
+    }
+
+    @Test
+    public void testClassify() {
+        assertThat(classify(oneToNine, i -> i < 4, even()), contains(newCollection(1, 2, 3), newCollection(4, 6, 8), newCollection(5, 7, 9)));
+        assertThat(classifyAll(oneToNine, i -> i < 4, even()), contains(newCollection(1, 2, 3), newCollection(2, 4, 6, 8), newCollection(5, 7, 9)));
+        assertThat(classify(oneToNine), contains(oneToNine));
+
+        final List<Integer> ts = IntStream.range(0, Collections.PARALLEL_THRESHOLD).boxed().collect(Collectors.toList());
+        final Collection<Collection<Integer>> classified = classify(ts, i -> i % 3 == 0, even());
+        assertThat(ts.parallelStream().collect(classifying(i -> i % 3 == 0, even())), is(classified));
+    }
+
     @Test
     public void testApplyPredicate() {
         assertThat(applyPredicate(oneToSix, even()), is(newCollection(2, 4, 6)));
         assertThat(applyPredicate(oneToSix, odd()), is(newCollection(1, 3, 5)));
     }
+
+    @Test
+    public void testParallelTransformers() {
+        for (final int size : new int[]{ 5, Collections.PARALLEL_THRESHOLD * 4 }) {
+            final List<Integer> ts = IntStream.range(0, size).map(i -> i % 7).boxed().collect(Collectors.toList());
+            final Collection<Integer> unindexed = new ArrayDeque<>(ts);
+
+            assertThat(parallelFlatten(ts, newCollection(), unindexed, newCollection(1)), is(flatten(ts, newCollection(), unindexed, newCollection(1))));
+            assertThat(parallelIndexed(unindexed), is(indexed(ts)));
+            assertThat(parallelIndicesOf(ts, 3), is(indicesOf(ts, 3)));
+            assertThat(parallelApplyPredicate(unindexed, even()), is(applyPredicate(ts, even())));
+            assertThat(parallelReverse(ts), is(reverse(ts)));
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
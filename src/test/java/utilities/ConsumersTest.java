@@ -4,11 +4,29 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import types.IntTuple;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 import java.util.function.Consumer;
 
+import static java.util.Arrays.asList;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsEmptyCollection.empty;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.never;
@@ -41,4 +59,281 @@ public class ConsumersTest {
             assertThat(index, is(count.getAndIncrement()));
         });
     }
+
+    @Test
+    public void testRepeatPrimitive() {
+        final AtomicInteger count = new AtomicInteger(0);
+        Consumers.repeatInt(5, index -> assertThat(index, is(count.getAndIncrement())));
+        assertThat(count.get(), is(5));
+
+        final AtomicLong longCount = new AtomicLong(0);
+        Consumers.repeatLong(5L, index -> assertThat(index, is(longCount.getAndIncrement())));
+        assertThat(longCount.get(), is(5L));
+    }
+
+    @Test
+    public void testRepeatChunked() {
+        final List<IntTuple> ranges = new ArrayList<>();
+        Consumers.repeatChunked(10, 4, (from, to) -> ranges.add(new IntTuple(from, to)));
+        assertThat(ranges, contains(new IntTuple(0, 4), new IntTuple(4, 8), new IntTuple(8, 10)));
+
+        ranges.clear();
+        Consumers.repeatChunked(0, 4, (from, to) -> ranges.add(new IntTuple(from, to)));
+        assertThat(ranges, is(empty()));
+    }
+
+    @Test
+    public void testRepeatParallel() {
+        final AtomicLongArray seen = new AtomicLongArray(10000);
+        Consumers.repeatParallel(10000, seen::incrementAndGet);
+        Consumers.repeatParallel(10000, 64, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                seen.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < seen.length(); i++) {
+            assertThat(seen.get(i), is(2L));
+        }
+    }
+
+    @Test
+    public void testBatchingFlushesOnSizeAndClose() {
+        final List<List<Integer>> batches = new ArrayList<>();
+        try (final BatchingConsumer<Integer> batching = Consumers.batching(3, Duration.ofHours(1), batch -> batches.add(new ArrayList<>(batch)))) {
+            Consumers.repeat(7, batching);
+        }
+        assertThat(batches, contains(asList(0, 1, 2), asList(3, 4, 5), asList(6)));
+    }
+
+    @Test
+    public void testBatchingFlushesOnTime() throws InterruptedException {
+        final CountDownLatch flushed = new CountDownLatch(1);
+        final List<Integer> batch = new ArrayList<>();
+        try (final BatchingConsumer<Integer> batching = Consumers.batching(100, Duration.ofMillis(10), b -> {
+            batch.addAll(b);
+            flushed.countDown();
+        })) {
+            batching.accept(1);
+            batching.accept(2);
+            assertThat(flushed.await(5, TimeUnit.SECONDS), is(true));
+            assertThat(batch, contains(1, 2));
+        }
+    }
+
+    @Test
+    public void testBatchingFromManyProducers() throws InterruptedException {
+        final int producers = 4;
+        final int each = 10000;
+        final List<Integer> received = new ArrayList<>();
+        final AtomicInteger maxBatch = new AtomicInteger();
+        final BatchingConsumer<Integer> batching = Consumers.batching(64, Duration.ofMillis(1), 256, batch -> {
+            received.addAll(batch);
+            maxBatch.accumulateAndGet(batch.size(), Math::max);
+        });
+        final List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            threads.add(new Thread(() -> Consumers.repeatInt(each, i -> batching.accept(producer * each + i))));
+        }
+        threads.forEach(Thread::start);
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        batching.close();
+
+        assertThat(received.size(), is(producers * each));
+        assertThat(maxBatch.get() <= 64, is(true));
+        // each producer's elements arrive in the order it sent them
+        final int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        for (final int value : received) {
+            assertThat(value % each > last[value / each], is(true));
+            last[value / each] = value % each;
+        }
+    }
+
+    @Test
+    public void testBatchingBackpressure() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger accepted = new AtomicInteger();
+        final BatchingConsumer<Integer> batching = Consumers.batching(2, Duration.ZERO, 4, batch -> {
+            try {
+                release.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final Thread producer = new Thread(() -> Consumers.repeatInt(10, i -> {
+            batching.accept(i);
+            accepted.incrementAndGet();
+        }));
+        producer.start();
+        Thread.sleep(200);
+        assertThat(accepted.get(), is(4));
+
+        release.countDown();
+        producer.join();
+        batching.close();
+        assertThat(accepted.get(), is(10));
+    }
+
+    @Test
+    public void testBatchingRethrowsOnClose() {
+        final AtomicInteger delivered = new AtomicInteger();
+        final BatchingConsumer<Integer> batching = Consumers.batching(1, Duration.ZERO, batch -> {
+            if (delivered.incrementAndGet() == 1) {
+                throw new IllegalArgumentException("first");
+            }
+        });
+        batching.accept(1);
+        batching.accept(2);
+        try {
+            batching.close();
+            throw new AssertionError("close should rethrow");
+        } catch (final IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("first"));
+        }
+        assertThat(delivered.get(), is(2));
+    }
+
+    @Test
+    public void testBatchingKeepsDeliveringAfterAnError() {
+        final List<Integer> delivered = new ArrayList<>();
+        final BatchingConsumer<Integer> batching = Consumers.batching(1, Duration.ZERO, 1, batch -> {
+            if (batch.get(0) == 1) {
+                throw new AssertionError("first");
+            }
+            delivered.addAll(batch);
+        });
+        Consumers.repeat(4, batching);
+        try {
+            batching.close();
+            throw new IllegalStateException("close should rethrow");
+        } catch (final AssertionError e) {
+            assertThat(e.getMessage(), is("first"));
+        }
+        assertThat(delivered, contains(0, 2, 3));
+    }
+
+    @Test
+    public void testBatchingRejectsNull() {
+        final List<Integer> delivered = new ArrayList<>();
+        try (final BatchingConsumer<Integer> batching = Consumers.batching(1, Duration.ZERO, 1, delivered::addAll)) {
+            try {
+                batching.accept(null);
+                throw new AssertionError("accept should reject null");
+            } catch (final NullPointerException e) {
+                // with a capacity of 1 these would block if the null had kept its permit
+                batching.accept(1);
+                batching.accept(2);
+            }
+        }
+        assertThat(delivered, contains(1, 2));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testBatchingAfterClose() {
+        final BatchingConsumer<Integer> batching = Consumers.batching(10, Duration.ofSeconds(1), batch -> { });
+        batching.close();
+        batching.accept(1);
+    }
+
+    @Test
+    public void testRepeatConcurrent() {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicLongArray seen = new AtomicLongArray(40);
+        Consumers.repeatConcurrent(40, 4, i -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            seen.incrementAndGet(i);
+            running.decrementAndGet();
+        });
+        assertThat(maxRunning.get() <= 4, is(true));
+        for (int i = 0; i < seen.length(); i++) {
+            assertThat(seen.get(i), is(1L));
+        }
+    }
+
+    @Test
+    public void testForEachConcurrent() {
+        final Set<String> seen = ConcurrentHashMap.newKeySet();
+        Consumers.forEachConcurrent(new LinkedHashSet<>(asList("a", "b", "c")), 2, seen::add);
+        assertThat(seen, is(new HashSet<>(asList("a", "b", "c"))));
+    }
+
+    @Test
+    public void testRepeatConcurrentFailureCancelsTheRest() {
+        final AtomicInteger started = new AtomicInteger();
+        try {
+            Consumers.repeatConcurrent(1000, 2, i -> {
+                started.incrementAndGet();
+                if (i == 3) {
+                    throw new IllegalStateException("boom");
+                }
+                sleep(5);
+            });
+            throw new AssertionError("repeatConcurrent should fail");
+        } catch (final CompletionException e) {
+            assertThat(e.getCause().getMessage(), is("boom"));
+        }
+        assertThat(started.get() < 1000, is(true));
+    }
+
+    @Test
+    public void testRepeatConcurrentTimeout() {
+        try {
+            Consumers.repeatConcurrent(2, 2, Duration.ofMillis(20), i -> sleep(1000));
+            throw new AssertionError("repeatConcurrent should time out");
+        } catch (final CompletionException e) {
+            assertThat(e.getCause() instanceof TimeoutException, is(true));
+        }
+    }
+
+    @Test
+    public void testRepeatConcurrentWaitsForCancelledCalls() {
+        final AtomicInteger started = new AtomicInteger();
+        final AtomicInteger returned = new AtomicInteger();
+        try {
+            // a 1s timeout leaves the cancelled calls 100ms to return
+            Consumers.repeatConcurrent(4, 4, Duration.ofSeconds(1), i -> {
+                started.incrementAndGet();
+                sleep(5000);
+                // an interrupted call still takes a moment to wind down
+                busyWait(5);
+                returned.incrementAndGet();
+            });
+            throw new AssertionError("repeatConcurrent should time out");
+        } catch (final CompletionException e) {
+            assertThat(returned.get(), is(started.get()));
+        }
+    }
+
+    @Test
+    public void testRepeatConcurrentTimeoutBoundsTheWaitForCancelledCalls() {
+        final long start = System.nanoTime();
+        try {
+            // calls that ignore interrupts are given at most a tenth of the timeout to return
+            Consumers.repeatConcurrent(2, 2, Duration.ofMillis(20), i -> busyWait(1000));
+            throw new AssertionError("repeatConcurrent should time out");
+        } catch (final CompletionException e) {
+            assertThat(e.getCause() instanceof TimeoutException, is(true));
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 500, is(true));
+    }
+
+    private static void busyWait(final long millis) {
+        final long until = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+        while (System.nanoTime() < until) {
+            Thread.yield();
+        }
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
@@ -0,0 +1,144 @@
+package utilities;
+
+import org.junit.After;
+import org.junit.Test;
+import types.IndexedCollection;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.number.OrderingComparison.greaterThan;
+import static org.hamcrest.number.OrderingComparison.greaterThanOrEqualTo;
+import static org.junit.Assume.assumeTrue;
+import static utilities.Collections.newCollection;
+
+public class InstrumentationTest {
+
+    final private InMemoryMetrics metrics = new InMemoryMetrics();
+
+    @After
+    public void tearDown() {
+        Instrumentation.disable();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertThat(Instrumentation.isEnabled(), is(false));
+        Collections.reverse(newCollection(1, 2, 3));
+        assertThat(metrics.count("Collections.reverse.calls"), is(0L));
+    }
+
+    @Test
+    public void testRecordsSizesAndTime() {
+        Instrumentation.enable(metrics);
+        final List<Integer> ts = new LinkedList<>(newCollection(1, 2, 3, 4, 5));
+        Collections.slice(ts, 1, 3);
+        Collections.slice(ts, 0, 5);
+
+        assertThat(metrics.count("Collections.slice.calls"), is(2L));
+        assertThat(metrics.count("Collections.slice.slow"), is(0L));
+        assertThat(metrics.histogram("Collections.slice.inputSize").max(), is(5L));
+        assertThat(metrics.histogram("Collections.slice.outputSize").min(), is(2L));
+        assertThat(metrics.histogram("Collections.slice.outputSize").sum(), is(7L));
+        assertThat(metrics.histogram("Collections.slice.nanos").count(), is(2L));
+    }
+
+    @Test
+    public void testRecordsAllocatedBytes() {
+        assumeTrue(Instrumentation.allocationMeasurable());
+        Instrumentation.enable(metrics);
+        final List<Integer> ts = new ArrayList<>(newCollection(1, 2, 3));
+        for (int i = 0; i < 10000; i++) {
+            ts.add(i);
+        }
+        Collections.reverse(ts);
+
+        final InMemoryMetrics.Histogram allocated = metrics.histogram("Collections.reverse.allocatedBytes");
+        assertThat(allocated.count(), is(1L));
+        // copying 10003 references allocates at least 4 bytes each
+        assertThat(allocated.max(), greaterThanOrEqualTo(40000L));
+    }
+
+    @Test
+    public void testSlowCalls() {
+        Instrumentation.enable(metrics, 0, TimeUnit.NANOSECONDS);
+        Consumers.repeatInt(3, i -> { });
+        Collections.find(newCollection(1, 2, 3), i -> i == 2);
+
+        assertThat(metrics.count("Consumers.repeatInt.slow"), is(1L));
+        assertThat(metrics.histogram("Consumers.repeatInt.inputSize").max(), is(3L));
+        assertThat(metrics.histogram("Collections.find.outputSize").max(), is(1L));
+    }
+
+    @Test
+    public void testFindRecordsElementsTested() {
+        Instrumentation.enable(metrics);
+        Collections.find(newCollection(1, 2, 3, 4), i -> i == 2);
+        Collections.findIndex(newCollection(1, 2, 3, 4), i -> i > 4);
+
+        assertThat(metrics.histogram("Collections.find.inputSize").max(), is(2L));
+        assertThat(metrics.histogram("Collections.findIndex.inputSize").max(), is(4L));
+        assertThat(metrics.histogram("Collections.findIndex.outputSize").max(), is(0L));
+    }
+
+    @Test
+    public void testFastPathsAreRecorded() {
+        Instrumentation.enable(metrics);
+        Collections.unzip(Collections.zip(newCollection(1, 2), newCollection("a", "b")));
+        Collections.indicesOf(new IndexedCollection<>(newCollection(1, 2, 1)), 1);
+
+        assertThat(metrics.count("Collections.unzip.calls"), is(1L));
+        assertThat(metrics.histogram("Collections.unzip.outputSize").max(), is(2L));
+        assertThat(metrics.histogram("Collections.indicesOf.outputSize").max(), is(2L));
+    }
+
+    @Test
+    public void testEachCallIsRecordedOnce() {
+        Instrumentation.enable(metrics);
+        Collections.tail(new LinkedList<>(newCollection(1, 2, 3)));
+        Collections.flatten(newCollection(1), newCollection(2, 3));
+        Collections.parallelFlatten(newCollection(1), newCollection(2, 3));
+        Collections.bitmapApplyPredicate(newCollection(1, 2, 3), i -> i > 1);
+
+        assertThat(metrics.count("Collections.tail.calls"), is(1L));
+        assertThat(metrics.count("Collections.slice.calls"), is(0L));
+        assertThat(metrics.histogram("Collections.flatten.inputSize").max(), is(2L));
+        assertThat(metrics.histogram("Collections.flatten.outputSize").max(), is(3L));
+        assertThat(metrics.count("Collections.parallelFlatten.calls"), is(1L));
+        assertThat(metrics.count("Collections.get.calls"), is(0L));
+        assertThat(metrics.count("Collections.indexedFrom.calls"), is(0L));
+    }
+
+    @Test
+    public void testFillAndIndexedWithConsumerAreRecorded() {
+        Instrumentation.enable(metrics);
+        Collections.fill("a", 3);
+        Collections.fill(() -> "b", 2);
+        Collections.fillConcurrent(() -> "c", 4, 2);
+        Collections.indexed(newCollection(1, 2, 3), (index, t) -> { });
+
+        assertThat(metrics.count("Collections.fill.calls"), is(2L));
+        assertThat(metrics.histogram("Collections.fill.outputSize").sum(), is(5L));
+        assertThat(metrics.histogram("Collections.fillConcurrent.outputSize").max(), is(4L));
+        assertThat(metrics.histogram("Collections.indexedFrom.inputSize").max(), is(3L));
+    }
+
+    @Test
+    public void testHistogram() {
+        for (long value = 1; value <= 100; value++) {
+            metrics.record("h", value);
+        }
+        final InMemoryMetrics.Histogram histogram = metrics.histogram("h");
+        assertThat(histogram.count(), is(100L));
+        assertThat(histogram.mean(), is(50.5));
+        assertThat(histogram.percentile(0.5), greaterThanOrEqualTo(50L));
+        assertThat(histogram.percentile(0.5), is(63L));
+        assertThat(histogram.percentile(1), is(100L));
+        assertThat(metrics.histogram("missing").count(), is(0L));
+        assertThat(histogram.percentile(0), greaterThan(0L));
+    }
+}
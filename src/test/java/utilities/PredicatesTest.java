@@ -4,14 +4,30 @@ import org.junit.Test;
 import testutils.Widget;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.hamcrest.core.Is.is;
 import static utilities.Collections.applyPredicate;
 import static utilities.Collections.newCollection;
+import static utilities.Predicates.allOf;
 import static utilities.Predicates.and;
+import static utilities.Predicates.anyOf;
 import static utilities.Predicates.empty;
 import static utilities.Predicates.even;
+import static utilities.Predicates.intEven;
+import static utilities.Predicates.intOdd;
+import static utilities.Predicates.intXor;
+import static utilities.Predicates.longEven;
+import static utilities.Predicates.longOdd;
+import static utilities.Predicates.longXor;
+import static utilities.Predicates.memoize;
+import static utilities.Predicates.noneOf;
 import static utilities.Predicates.not;
 import static utilities.Predicates.odd;
 import static utilities.Predicates.or;
@@ -46,6 +62,41 @@ public class PredicatesTest {
         assertThat(applyPredicate(widgets, xor(Widget::isPurple, Widget::isShiny)), is(newCollection(purpleWidget, shinyWidget)));
     }
 
+    @Test
+    public void testXorEvaluatesEachOperandOnce() {
+        final AtomicInteger tests = new AtomicInteger(0);
+        final Predicate<Widget> countingPurple = w -> tests.incrementAndGet() > 0 && w.isPurple();
+        xor(countingPurple, Widget::isShiny).test(purpleWidget);
+        assertThat(tests.get(), is(1));
+    }
+
+    @Test
+    public void testAllAnyNoneOf() {
+        assertThat(applyPredicate(widgets, allOf(Widget::isPurple, Widget::isShiny)), is(newCollection(purpleAndShinyWidget)));
+        assertThat(applyPredicate(widgets, anyOf(Widget::isPurple, Widget::isShiny)), is(newCollection(purpleWidget, shinyWidget, purpleAndShinyWidget)));
+        assertThat(applyPredicate(widgets, noneOf(Widget::isPurple, Widget::isShiny)), is(newCollection(plainWidget)));
+        assertThat(applyPredicate(widgets, allOf()), is(widgets));
+    }
+
+    @Test
+    public void testPrimitive() {
+        assertThat(IntStream.rangeClosed(-3, 3).filter(intEven()).boxed().collect(Collectors.toList()), contains(-2, 0, 2));
+        assertThat(IntStream.rangeClosed(-3, 3).filter(intOdd()).boxed().collect(Collectors.toList()), contains(-3, -1, 1, 3));
+        assertThat(LongStream.rangeClosed(1, 4).filter(longEven()).boxed().collect(Collectors.toList()), contains(2L, 4L));
+        assertThat(LongStream.rangeClosed(1, 4).filter(longOdd()).boxed().collect(Collectors.toList()), contains(1L, 3L));
+        assertThat(IntStream.rangeClosed(1, 6).filter(intXor(intEven(), i -> i > 3)).boxed().collect(Collectors.toList()), contains(2, 5));
+        assertThat(LongStream.rangeClosed(1, 6).filter(longXor(longEven(), l -> l > 3)).boxed().collect(Collectors.toList()), contains(2L, 5L));
+    }
+
+    @Test
+    public void testMemoize() {
+        final AtomicInteger tests = new AtomicInteger(0);
+        final Predicate<Widget> memoized = memoize(w -> tests.incrementAndGet() > 0 && w.isPurple(), 10);
+        assertThat(applyPredicate(widgets, memoized), is(newCollection(purpleWidget, purpleAndShinyWidget)));
+        assertThat(applyPredicate(widgets, memoized), is(newCollection(purpleWidget, purpleAndShinyWidget)));
+        assertThat(tests.get(), is(4));
+    }
+
     @Test
     public void testEven() {
         assertThat(applyPredicate(newCollection(1, 2, 3, 4, 5, 6), even()), is(newCollection(2, 4, 6)));
@@ -54,6 +105,7 @@ public class PredicatesTest {
     @Test
     public void testOdd() {
         assertThat(applyPredicate(newCollection(1, 2, 3, 4, 5, 6), odd()), is(newCollection(1, 3, 5)));
+        assertThat(applyPredicate(newCollection(-3, -2, -1), odd()), is(newCollection(-3, -1)));
     }
 
     @Test
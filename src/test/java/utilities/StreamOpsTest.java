@@ -0,0 +1,91 @@
+package utilities;
+
+import org.junit.Test;
+import types.IntObjTuple;
+import types.Pair;
+import types.Tuple;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.hamcrest.core.Is.is;
+import static utilities.Collections.newCollection;
+import static utilities.StreamOps.discardingPartition;
+import static utilities.StreamOps.indexed;
+import static utilities.StreamOps.intIndexedFrom;
+import static utilities.StreamOps.partition;
+import static utilities.StreamOps.partitionOverlapping;
+import static utilities.StreamOps.toOverlappingPairs;
+import static utilities.StreamOps.toPairs;
+import static utilities.StreamOps.windowed;
+import static utilities.StreamOps.zip;
+
+public class StreamOpsTest {
+
+    @Test
+    public void testToPairs() {
+        assertThat(collect(toPairs(Stream.of(1, 2, 3, 4))), contains(new Pair<>(1, 2), new Pair<>(3, 4)));
+        assertThat(collect(toPairs(Stream.iterate(1, i -> i + 1)).limit(2)), contains(new Pair<>(1, 2), new Pair<>(3, 4)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testToPairsInvalid() {
+        collect(toPairs(Stream.of(1, 2, 3)));
+    }
+
+    @Test
+    public void testToOverlappingPairs() {
+        assertThat(collect(toOverlappingPairs(Stream.of(1, 2, 3))), contains(new Pair<>(1, 2), new Pair<>(2, 3)));
+        assertThat(collect(toOverlappingPairs(Stream.of(1))), is(newCollection()));
+        assertThat(collect(toOverlappingPairs(Stream.iterate(1, i -> i + 1)).limit(2)), contains(new Pair<>(1, 2), new Pair<>(2, 3)));
+    }
+
+    @Test
+    public void testIndexed() {
+        assertThat(collect(indexed(Stream.of("one", "two"))), contains(new Tuple<>(0, "one"), new Tuple<>(1, "two")));
+        assertThat(collect(intIndexedFrom(Stream.of("one", "two"), 1)), contains(new IntObjTuple<>(1, "one"), new IntObjTuple<>(2, "two")));
+    }
+
+    @Test
+    public void testZip() {
+        assertThat(collect(zip(Stream.of("one", "two"), Stream.of(1, 2))), contains(new Tuple<>("one", 1), new Tuple<>("two", 2)));
+        assertThat(collect(zip(Stream.generate(() -> "x"), Stream.iterate(1, i -> i + 1)).limit(2)), contains(new Tuple<>("x", 1), new Tuple<>("x", 2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZipInvalid() {
+        collect(zip(Stream.of("one", "two"), Stream.of(1)));
+    }
+
+    @Test
+    public void testPartitions() {
+        assertThat(collect(partition(Stream.of(1, 2, 3, 4, 5), 2)), contains(newCollection(1, 2), newCollection(3, 4), newCollection(5)));
+        assertThat(collect(discardingPartition(Stream.of(1, 2, 3, 4, 5), 2)), contains(newCollection(1, 2), newCollection(3, 4)));
+        assertThat(collect(partitionOverlapping(Stream.of(1, 2, 3, 4, 5, 6), 3)), contains(newCollection(1, 2, 3), newCollection(3, 4, 5), newCollection(5, 6)));
+        assertThat(collect(partition(Stream.iterate(1, i -> i + 1), 3).limit(2)), contains(newCollection(1, 2, 3), newCollection(4, 5, 6)));
+        assertThat(collect(partition(Stream.empty(), 3)), is(newCollection()));
+    }
+
+    @Test
+    public void testWindowed() {
+        assertThat(collect(windowed(Stream.of(1, 2, 3, 4, 5), 3, 1)), contains(newCollection(1, 2, 3), newCollection(2, 3, 4), newCollection(3, 4, 5)));
+        assertThat(collect(windowed(Stream.of(1, 2, 3, 4, 5, 6, 7, 8), 2, 3)), contains(newCollection(1, 2), newCollection(4, 5), newCollection(7, 8)));
+        assertThat(collect(windowed(Stream.of(1, 2, 3, 4, 5, 6), 4, 2)), contains(newCollection(1, 2, 3, 4), newCollection(3, 4, 5, 6)));
+        assertThat(collect(windowed(Stream.iterate(1, i -> i + 1), 2, 2).limit(2)), contains(newCollection(1, 2), newCollection(3, 4)));
+    }
+
+    @Test
+    public void testCloseClosesInput() {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        partition(Stream.of(1, 2, 3).onClose(() -> closed.set(true)), 2).close();
+        assertThat(closed.get(), is(true));
+    }
+
+    private <T> List<T> collect(final Stream<T> stream) {
+        return stream.collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,78 @@
+package utilities;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+import static utilities.Windows.rollingAverage;
+import static utilities.Windows.rollingMax;
+import static utilities.Windows.rollingMin;
+import static utilities.Windows.rollingSum;
+
+public class WindowsTest {
+
+    @Test
+    public void testRollingSum() {
+        assertThat(rollingSum(IntStream.rangeClosed(1, 5), 2, 1).toArray(), is(new long[]{3, 5, 7, 9}));
+        assertThat(rollingSum(LongStream.rangeClosed(1, 9), 3, 3).toArray(), is(new long[]{6, 15, 24}));
+        assertThat(rollingSum(DoubleStream.of(0.5, 1.5, 2.5), 2, 1).toArray(), is(new double[]{2.0, 4.0}));
+        assertThat(rollingSum(IntStream.of(1, 2), 3, 1).count(), is(0L));
+    }
+
+    @Test
+    public void testRollingAverage() {
+        assertThat(rollingAverage(IntStream.rangeClosed(1, 6), 2, 2).toArray(), is(new double[]{1.5, 3.5, 5.5}));
+        assertThat(rollingAverage(DoubleStream.of(1, 2, 3, 4), 4, 1).toArray(), is(new double[]{2.5}));
+    }
+
+    @Test
+    public void testRollingMinAndMax() {
+        assertThat(rollingMin(IntStream.of(4, 2, 12, 3, 8, 1, 7), 3, 1).toArray(), is(new int[]{2, 2, 3, 1, 1}));
+        assertThat(rollingMax(IntStream.of(4, 2, 12, 3, 8, 1, 7), 3, 1).toArray(), is(new int[]{12, 12, 12, 8, 8}));
+        assertThat(rollingMax(LongStream.of(5, 5, 1, 1), 2, 1).toArray(), is(new long[]{5, 5, 1}));
+        assertThat(rollingMin(DoubleStream.of(1, 0.5, 2), 2, 1).toArray(), is(new double[]{0.5, 0.5}));
+    }
+
+    @Test
+    public void testMatchesRecomputing() {
+        final int[] values = new Random(7).ints(500, -100, 100).toArray();
+        for (final int size : new int[]{1, 2, 5, 17}) {
+            for (final int step : new int[]{1, 3, 20}) {
+                final IntStream.Builder mins = IntStream.builder();
+                final IntStream.Builder maxes = IntStream.builder();
+                final LongStream.Builder sums = LongStream.builder();
+                for (int from = 0; from + size <= values.length; from += step) {
+                    mins.add(IntStream.of(values).skip(from).limit(size).min().getAsInt());
+                    maxes.add(IntStream.of(values).skip(from).limit(size).max().getAsInt());
+                    sums.add(IntStream.of(values).skip(from).limit(size).asLongStream().sum());
+                }
+                assertThat(rollingMin(IntStream.of(values), size, step).toArray(), is(mins.build().toArray()));
+                assertThat(rollingMax(IntStream.of(values), size, step).toArray(), is(maxes.build().toArray()));
+                assertThat(rollingSum(IntStream.of(values), size, step).toArray(), is(sums.build().toArray()));
+            }
+        }
+    }
+
+    @Test
+    public void testLazy() {
+        assertThat(rollingSum(LongStream.iterate(1, i -> i + 1), 2, 1).limit(3).toArray(), is(new long[]{3, 5, 7}));
+    }
+
+    @Test
+    public void testCloseClosesInput() {
+        final AtomicBoolean closed = new AtomicBoolean(false);
+        rollingMax(IntStream.of(1, 2, 3).onClose(() -> closed.set(true)), 2, 1).close();
+        assertThat(closed.get(), is(true));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        rollingSum(IntStream.of(1, 2), 0, 1);
+    }
+}